@@ -3,6 +3,7 @@ package dev.emortal.minestom.core;
 import dev.emortal.api.modules.LoadableModule;
 import dev.emortal.api.modules.Module;
 import dev.emortal.api.modules.ModuleManager;
+import dev.emortal.minestom.core.module.ModuleLoadTimer;
 import dev.emortal.minestom.core.module.chat.ChatModule;
 import dev.emortal.minestom.core.module.core.CoreModule;
 import dev.emortal.minestom.core.module.kubernetes.KubernetesModule;
@@ -11,12 +12,15 @@ import dev.emortal.minestom.core.module.matchmaker.MatchmakerModule;
 import dev.emortal.minestom.core.module.messaging.MessagingModule;
 import dev.emortal.minestom.core.module.monitoring.MonitoringModule;
 import dev.emortal.minestom.core.module.permissions.PermissionModule;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
 import net.minestom.server.Auth;
 import net.minestom.server.MinecraftServer;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.lang.management.ManagementFactory;
 import java.util.Map;
 
 public final class MinestomServer {
@@ -52,6 +56,7 @@ public final class MinestomServer {
 
 
         this.moduleManager = builder.moduleManagerBuilder.build();
+        builder.moduleLoadTimer.report();
         MinecraftServer.getSchedulerManager().buildShutdownTask(this.moduleManager::onUnload);
     }
 
@@ -73,6 +78,14 @@ public final class MinestomServer {
         LOGGER.info("Starting server at {}:{}", this.address, this.port);
         this.server.start(this.address, this.port);
         this.moduleManager.onReady();
+
+        // The time until the server can accept players, which bounds how fast a fleet can scale up
+        long startupMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        Gauge.builder("minestom.startup.time", () -> startupMillis / 1000D)
+                .description("The time taken from JVM start to the server accepting connections")
+                .baseUnit("seconds")
+                .register(Metrics.globalRegistry);
+        LOGGER.info("Server started in {} ms", startupMillis);
     }
 
     public @NotNull ModuleManager getModuleManager() {
@@ -86,6 +99,7 @@ public final class MinestomServer {
         private boolean mojangAuth = false;
 
         private final ModuleManager.Builder moduleManagerBuilder = ModuleManager.builder();
+        private final ModuleLoadTimer moduleLoadTimer = new ModuleLoadTimer();
 
         private Builder() {
             // we do this because env variables in dockerfiles break k8s env variables?
@@ -124,7 +138,7 @@ public final class MinestomServer {
         }
 
         public @NotNull Builder module(@NotNull Class<? extends Module> clazz, @NotNull LoadableModule.Creator moduleCreator) {
-            this.moduleManagerBuilder.module(clazz, moduleCreator);
+            this.moduleManagerBuilder.module(clazz, this.moduleLoadTimer.wrap(moduleCreator));
             return this;
         }
 
@@ -10,6 +10,7 @@ import org.jetbrains.annotations.NotNull;
 public abstract class MinestomModule extends Module {
 
     protected final @NotNull EventNode<Event> eventNode;
+    private long loadNanos = -1;
 
     protected MinestomModule(@NotNull ModuleEnvironment environment) {
         super(environment);
@@ -18,6 +19,36 @@ public abstract class MinestomModule extends Module {
         MinecraftServer.getGlobalEventHandler().addChild(this.eventNode);
     }
 
+    /**
+     * Loads the module, timing it for the startup report. Implement {@link #load()} rather than overriding this, as
+     * modules overriding it aren't timed.
+     */
+    @Override
+    public boolean onLoad() {
+        long start = System.nanoTime();
+        try {
+            return this.load();
+        } finally {
+            this.loadNanos = System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * called when the module is loaded, after the modules it depends on
+     *
+     * @return true if the module loaded successfully
+     */
+    protected boolean load() {
+        return true;
+    }
+
+    /**
+     * @return the time {@link #load()} took, or -1 if it hasn't run
+     */
+    long getLoadNanos() {
+        return this.loadNanos;
+    }
+
     /**
      * called when the server is ready to accept connections
      * (MinecraftServer#start has been called)
@@ -0,0 +1,83 @@
+package dev.emortal.minestom.core.module;
+
+import dev.emortal.api.modules.LoadableModule;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times how long each module takes to create and load, and reports it once all modules are loaded.
+ * <p>
+ * Module constructors are timed by wrapping their creators. {@code onLoad} is timed by {@link MinestomModule}, so the
+ * load time of modules that don't extend it, or override {@code onLoad}, isn't known.
+ */
+public final class ModuleLoadTimer {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ModuleLoadTimer.class);
+
+    private final List<CreatedModule> modules = new ArrayList<>();
+    private long loadStart = -1;
+
+    /**
+     * @return a creator that times the given creator
+     */
+    public @NotNull LoadableModule.Creator wrap(@NotNull LoadableModule.Creator creator) {
+        return environment -> {
+            long start = System.nanoTime();
+            if (this.loadStart == -1) this.loadStart = start;
+
+            var module = creator.create(environment);
+            this.modules.add(new CreatedModule(environment.data().name(), module instanceof MinestomModule timed ? timed : null,
+                    System.nanoTime() - start));
+            return module;
+        };
+    }
+
+    /**
+     * Logs the construction and load times of each module, and exports them as {@code minestom.startup.module_load}
+     * gauges. Call this once the module manager has loaded all modules.
+     */
+    public void report() {
+        if (this.loadStart == -1) return;
+        long totalNanos = System.nanoTime() - this.loadStart;
+
+        StringBuilder report = new StringBuilder();
+        for (CreatedModule created : this.modules) {
+            long loadNanos = created.module() == null ? -1 : created.module().getLoadNanos();
+
+            report.append(String.format("%n  %-16s %6d ms constructing, %s loading", created.name(),
+                    TimeUnit.NANOSECONDS.toMillis(created.constructNanos()),
+                    loadNanos == -1 ? "unknown" : TimeUnit.NANOSECONDS.toMillis(loadNanos) + " ms"));
+
+            registerGauge("minestom.startup.module_load", "The time taken to create or load the module", created.name(),
+                    "construct", created.constructNanos());
+            if (loadNanos != -1) {
+                registerGauge("minestom.startup.module_load", "The time taken to create or load the module", created.name(),
+                        "load", loadNanos);
+            }
+        }
+
+        registerGauge("minestom.startup.modules_load", "The time taken to create and load all modules", null, null, totalNanos);
+        LOGGER.info("Loaded {} modules in {} ms:{}", this.modules.size(), TimeUnit.NANOSECONDS.toMillis(totalNanos), report);
+    }
+
+    private static void registerGauge(@NotNull String name, @NotNull String description, @Nullable String module,
+                                      @Nullable String phase, long nanos) {
+        double seconds = nanos / 1e9;
+        Gauge.Builder<?> builder = Gauge.builder(name, () -> seconds)
+                .description(description)
+                .baseUnit("seconds");
+        if (module != null) builder.tag("module", module);
+        if (phase != null) builder.tag("phase", phase);
+        builder.register(Metrics.globalRegistry);
+    }
+
+    private record CreatedModule(@NotNull String name, @Nullable MinestomModule module, long constructNanos) {
+    }
+}
@@ -6,57 +6,99 @@ import dev.emortal.api.model.messagehandler.ChatMessage;
 import dev.emortal.api.modules.annotation.Dependency;
 import dev.emortal.api.modules.annotation.ModuleData;
 import dev.emortal.api.modules.env.ModuleEnvironment;
-import dev.emortal.api.utils.kafka.FriendlyKafkaProducer;
 import dev.emortal.minestom.core.module.MinestomModule;
 import dev.emortal.minestom.core.module.messaging.MessagingModule;
+import dev.emortal.minestom.core.module.messaging.ProducerProfile;
+import dev.emortal.minestom.core.utils.MiniMessageTemplates;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
 import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.minimessage.MiniMessage;
-import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
-import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
-import net.minestom.server.adventure.audience.Audiences;
+import net.minestom.server.MinecraftServer;
 import net.minestom.server.entity.Player;
 import net.minestom.server.event.player.PlayerChatEvent;
+import net.minestom.server.event.player.PlayerDisconnectEvent;
+import net.minestom.server.network.packet.server.play.SystemChatPacket;
+import net.minestom.server.utils.PacketSendingUtils;
 import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 @ModuleData(name = "chat", dependencies = {@Dependency(name = "messaging")})
 public final class ChatModule extends MinestomModule {
+    private static final Logger LOGGER = LoggerFactory.getLogger(ChatModule.class);
+
+    private static final Component RATE_LIMITED_MESSAGE = Component.text("You are sending messages too quickly!", NamedTextColor.RED);
+
+    private final ChatRateLimiter rateLimiter = new ChatRateLimiter();
+    private final Counter rateLimited = droppedCounter("rate_limited");
+    private final Counter sendFailed = droppedCounter("send_failed");
 
     public ChatModule(@NotNull ModuleEnvironment environment) {
         super(environment);
     }
 
     @Override
-    public boolean onLoad() {
+    protected boolean load() {
         MessagingModule messagingModule = this.getModule(MessagingModule.class);
 
-        messagingModule.addListener(ChatMessageCreatedMessage.class, messageEvent -> {
+        messagingModule.addTickListener(ChatMessageCreatedMessage.class, messageEvent -> {
             ChatMessage message = messageEvent.getMessage();
 
-            TagResolver content;
+            // The format is shared by many messages, so is only parsed once. The content is different every time.
+            Component content;
             if (message.getParseMessageContent())
-                content = Placeholder.parsed("content", message.getMessageContent());
+                content = MiniMessage.miniMessage().deserialize(message.getMessageContent());
             else
-                content = Placeholder.unparsed("content", message.getMessageContent());
+                content = Component.text(message.getMessageContent());
 
-            Audiences.players().sendMessage(MiniMessage.miniMessage().deserialize(message.getMessage(), content));
+            broadcast(MiniMessageTemplates.get(message.getMessage(), "content").render(content));
         });
 
-        FriendlyKafkaProducer kafkaProducer = messagingModule.getKafkaProducer();
+        this.eventNode.addListener(PlayerDisconnectEvent.class, event -> this.rateLimiter.remove(event.getPlayer().getUuid()));
 
         this.eventNode.addListener(PlayerChatEvent.class, event -> {
             event.setCancelled(true);
 
             Player player = event.getPlayer();
+            if (!this.rateLimiter.tryAcquire(player.getUuid())) {
+                this.rateLimited.increment();
+                player.sendMessage(RATE_LIMITED_MESSAGE);
+                return;
+            }
+
             var message = ChatMessage.newBuilder()
                     .setMessage(event.getRawMessage())
                     .setSenderId(player.getUuid().toString())
                     .setSenderUsername(player.getUsername())
                     .build();
-            kafkaProducer.produceAndForget(PlayerChatMessageMessage.newBuilder().setMessage(message).build());
+            // The high volume producer batches messages sent close together, so each is produced as it's sent
+            messagingModule.produce(PlayerChatMessageMessage.newBuilder().setMessage(message).build(), ProducerProfile.HIGH_VOLUME)
+                    .exceptionally(exception -> {
+                        this.sendFailed.increment();
+                        LOGGER.warn("Failed to send chat message from {}", player.getUsername(), exception);
+                        return null;
+                    });
         });
         return true;
     }
 
+    /**
+     * Sends a message to all players, encoding the packet once and writing the same bytes to every player.
+     */
+    private static void broadcast(@NotNull Component message) {
+        var packet = new SystemChatPacket(message, false);
+        PacketSendingUtils.sendGroupedPacket(MinecraftServer.getConnectionManager().getOnlinePlayers(), packet);
+    }
+
+    private static @NotNull Counter droppedCounter(@NotNull String reason) {
+        return Counter.builder("minestom.chat.dropped")
+                .description("The amount of chat messages dropped before being sent")
+                .tag("reason", reason)
+                .register(Metrics.globalRegistry);
+    }
+
     @Override
     public void onUnload() {
     }
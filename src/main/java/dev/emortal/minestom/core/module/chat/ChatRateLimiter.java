@@ -0,0 +1,49 @@
+package dev.emortal.minestom.core.module.chat;
+
+import dev.emortal.minestom.core.utils.EnvUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A token bucket per player, allowing short bursts of chat messages while limiting the sustained rate.
+ * <p>
+ * A player's bucket is created on their first message and kept until they disconnect, so checking a message doesn't
+ * allocate.
+ */
+final class ChatRateLimiter {
+    private static final double BURST = Double.parseDouble(EnvUtils.getOrDefault("CHAT_RATE_BURST", "5"));
+    private static final double TOKENS_PER_NANO = Double.parseDouble(EnvUtils.getOrDefault("CHAT_RATE_PER_SECOND", "1"))
+            / TimeUnit.SECONDS.toNanos(1);
+
+    private final Map<UUID, Bucket> buckets = new ConcurrentHashMap<>();
+
+    /**
+     * @return true if the player may send a message now, consuming a token
+     */
+    boolean tryAcquire(@NotNull UUID playerId) {
+        return this.buckets.computeIfAbsent(playerId, id -> new Bucket()).tryAcquire(System.nanoTime());
+    }
+
+    void remove(@NotNull UUID playerId) {
+        this.buckets.remove(playerId);
+    }
+
+    private static final class Bucket {
+
+        private double tokens = BURST;
+        private long lastRefill = System.nanoTime();
+
+        synchronized boolean tryAcquire(long now) {
+            this.tokens = Math.min(BURST, this.tokens + (now - this.lastRefill) * TOKENS_PER_NANO);
+            this.lastRefill = now;
+
+            if (this.tokens < 1) return false;
+            this.tokens--;
+            return true;
+        }
+    }
+}
@@ -21,7 +21,7 @@ public final class CoreModule extends MinestomModule {
     }
 
     @Override
-    public boolean onLoad() {
+    protected boolean load() {
         MinecraftServer.getConnectionManager().setPlayerProvider(EmortalPlayerImpl::new);
 
         McPlayerService playerService = GrpcStubCollection.getPlayerService().orElse(null);
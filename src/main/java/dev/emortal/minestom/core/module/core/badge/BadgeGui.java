@@ -3,6 +3,7 @@ package dev.emortal.minestom.core.module.core.badge;
 import dev.emortal.api.grpc.badge.BadgeManagerProto;
 import dev.emortal.api.model.badge.Badge;
 import dev.emortal.api.service.badges.BadgeService;
+import dev.emortal.minestom.core.utils.MiniMessageTemplates;
 import io.grpc.StatusRuntimeException;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
@@ -32,11 +33,11 @@ public final class BadgeGui {
     private static final Logger LOGGER = LoggerFactory.getLogger(BadgeGui.class);
 
     private static final Component TITLE = Component.text("Your Badges", NamedTextColor.DARK_GREEN);
-    private static final String UNLOCKED_LINE = "<i:false><gray>Unlocked: <green>Yes";
-    private static final String NOT_UNLOCKED_LINE = "<i:false><gray>Unlocked: <red>No";
-    private static final String ACTIVE_LINE = "<i:false><gray>Active: <green>Yes";
-    private static final String NOT_ACTIVE_LINE = "<i:false><gray>Active: <red>No";
-    private static final String REQUIRED_LINE = "<i><red>This badge is required. You cannot disable it.";
+    private static final Component UNLOCKED_LINE = MINI_MESSAGE.deserialize("<i:false><gray>Unlocked: <green>Yes");
+    private static final Component NOT_UNLOCKED_LINE = MINI_MESSAGE.deserialize("<i:false><gray>Unlocked: <red>No");
+    private static final Component ACTIVE_LINE = MINI_MESSAGE.deserialize("<i:false><gray>Active: <green>Yes");
+    private static final Component NOT_ACTIVE_LINE = MINI_MESSAGE.deserialize("<i:false><gray>Active: <red>No");
+    private static final Component REQUIRED_LINE = MINI_MESSAGE.deserialize("<i><red>This badge is required. You cannot disable it.");
 
     private static final Component CLICK_CANNOT_CHANGE_ACTIVE = MINI_MESSAGE.deserialize("<red>You cannot change your active badge as one of your badges is required.");
 
@@ -148,26 +149,27 @@ public final class BadgeGui {
         List<Component> lore = new ArrayList<>();
 
         // Unlocked: Yes/No
-        lore.add(MINI_MESSAGE.deserialize(isOwned ? UNLOCKED_LINE : NOT_UNLOCKED_LINE));
+        lore.add(isOwned ? UNLOCKED_LINE : NOT_UNLOCKED_LINE);
 
         if (isOwned) {
             // Active: Yes/No
-            lore.add(MINI_MESSAGE.deserialize(isActive ? ACTIVE_LINE : NOT_ACTIVE_LINE));
+            lore.add(isActive ? ACTIVE_LINE : NOT_ACTIVE_LINE);
         }
 
         lore.add(Component.empty());
 
+        // Badges are the same for every player, so their lines are parsed once and cached
         for (String line : guiItem.getLoreList()) {
-            lore.add(MINI_MESSAGE.deserialize(line));
+            lore.add(MiniMessageTemplates.get(line).render());
         }
 
         if (isActive && badge.getRequired()) {
             lore.add(Component.empty());
-            lore.add(MINI_MESSAGE.deserialize(REQUIRED_LINE));
+            lore.add(REQUIRED_LINE);
         }
 
         return ItemStack.builder(Material.fromKey(guiItem.getMaterial()))
-                .set(DataComponents.ITEM_NAME, MINI_MESSAGE.deserialize(guiItem.getDisplayName()))
+                .set(DataComponents.ITEM_NAME, MiniMessageTemplates.get(guiItem.getDisplayName()).render())
                 .set(DataComponents.LORE, lore)
                 .set(BADGE_ID_TAG, badge.getId())
                 .set(BADGE_NAME_TAG, badge.getFriendlyName())
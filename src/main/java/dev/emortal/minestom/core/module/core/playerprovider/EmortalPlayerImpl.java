@@ -1,24 +1,157 @@
 package dev.emortal.minestom.core.module.core.playerprovider;
 
 import dev.emortal.minestom.core.module.permissions.Permission;
-import dev.emortal.minestom.core.module.permissions.PermissionHolder;
+import dev.emortal.minestom.core.module.permissions.PermissionMatcher;
+import dev.emortal.minestom.core.module.permissions.PermissionSnapshot;
+import dev.emortal.minestom.core.utils.command.CommandGraphCache;
 import net.minestom.server.entity.Player;
 import net.minestom.server.network.player.GameProfile;
 import net.minestom.server.network.player.PlayerConnection;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.AbstractSet;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Set;
-import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.function.Predicate;
 
 public class EmortalPlayerImpl extends Player implements EmortalPlayer {
-    private final @NotNull Set<Permission> permissions = new CopyOnWriteArraySet<>();
+    // Checks read the current snapshot without locking. Writers take the lock and swap in a new snapshot,
+    // so a check never sees a partially updated set.
+    private final Object permissionLock = new Object();
+    private volatile @NotNull PermissionSnapshot permissions = PermissionSnapshot.EMPTY;
+    private final @NotNull Set<Permission> permissionView = new PermissionView();
 
     public EmortalPlayerImpl(@NotNull PlayerConnection playerConnection, @NotNull GameProfile gameProfile) {
         super(playerConnection, gameProfile);
     }
 
+    /**
+     * @return a live view of the current permissions. Modifying it swaps in a new snapshot for each change, so prefer
+     * {@link #addPermission(Permission)} and the other modifying methods.
+     */
     @Override
     public @NotNull Set<Permission> getPermissions() {
-        return this.permissions;
+        return this.permissionView;
+    }
+
+    @Override
+    public void setPermissions(@NotNull PermissionSnapshot snapshot) {
+        synchronized (this.permissionLock) {
+            this.permissions = snapshot;
+        }
+    }
+
+    @Override
+    public void addPermission(@NotNull Permission permission) {
+        this.updatePermissions(copy -> copy.add(permission));
+    }
+
+    @Override
+    public void removePermission(@NotNull Permission permission) {
+        this.removePermissions(permission::equals);
+    }
+
+    @Override
+    public void removePermission(@NotNull String permission) {
+        this.removePermissions(p -> p.permission().equals(permission));
+    }
+
+    private boolean removePermissions(@NotNull Predicate<? super Permission> filter) {
+        return this.updatePermissions(copy -> copy.removeIf(filter));
+    }
+
+    /**
+     * @param change modifies a copy of the current permissions, returning true if it changed them
+     * @return true if the permissions changed
+     */
+    private boolean updatePermissions(@NotNull Predicate<Set<Permission>> change) {
+        synchronized (this.permissionLock) {
+            Set<Permission> permissions = new HashSet<>(this.permissions.permissions());
+            if (!change.test(permissions)) return false;
+
+            this.permissions = PermissionSnapshot.of(permissions);
+            return true;
+        }
+    }
+
+    @Override
+    public @NotNull PermissionMatcher getPermissionMatcher() {
+        return this.permissions.matcher();
+    }
+
+    @Override
+    public void refreshCommands() {
+        this.sendPacket(CommandGraphCache.getDeclareCommandsPacket(this));
+    }
+
+    /**
+     * Reads the current snapshot, and writes through to a new snapshot, so code modifying the set returned by
+     * {@link #getPermissions()} keeps working.
+     */
+    private final class PermissionView extends AbstractSet<Permission> {
+
+        @Override
+        public @NotNull Iterator<Permission> iterator() {
+            Iterator<Permission> iterator = EmortalPlayerImpl.this.permissions.permissions().iterator();
+            return new Iterator<>() {
+                private Permission last;
+
+                @Override
+                public boolean hasNext() {
+                    return iterator.hasNext();
+                }
+
+                @Override
+                public Permission next() {
+                    this.last = iterator.next();
+                    return this.last;
+                }
+
+                @Override
+                public void remove() {
+                    if (this.last == null) throw new IllegalStateException();
+
+                    EmortalPlayerImpl.this.removePermission(this.last);
+                    this.last = null;
+                }
+            };
+        }
+
+        @Override
+        public int size() {
+            return EmortalPlayerImpl.this.permissions.permissions().size();
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return EmortalPlayerImpl.this.permissions.permissions().contains(o);
+        }
+
+        @Override
+        public boolean add(@NotNull Permission permission) {
+            return EmortalPlayerImpl.this.updatePermissions(copy -> copy.add(permission));
+        }
+
+        @Override
+        public boolean addAll(@NotNull Collection<? extends Permission> added) {
+            return EmortalPlayerImpl.this.updatePermissions(copy -> copy.addAll(added));
+        }
+
+        @Override
+        public boolean remove(Object o) {
+            return o instanceof Permission permission && EmortalPlayerImpl.this.removePermissions(permission::equals);
+        }
+
+        @Override
+        public boolean removeIf(@NotNull Predicate<? super Permission> filter) {
+            return EmortalPlayerImpl.this.removePermissions(filter);
+        }
+
+        @Override
+        public void clear() {
+            EmortalPlayerImpl.this.setPermissions(PermissionSnapshot.EMPTY);
+        }
     }
 }
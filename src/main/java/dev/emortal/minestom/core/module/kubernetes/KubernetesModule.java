@@ -5,11 +5,11 @@ import dev.agones.sdk.SDKGrpc;
 import dev.agones.sdk.beta.BetaAgonesSDKProto;
 import dev.emortal.api.agonessdk.AgonesUtils;
 import dev.emortal.api.agonessdk.IgnoredStreamObserver;
-import dev.emortal.api.modules.Module;
 import dev.emortal.api.modules.annotation.ModuleData;
 import dev.emortal.api.modules.env.ModuleEnvironment;
 import dev.emortal.api.utils.GrpcStubCollection;
 import dev.emortal.minestom.core.Environment;
+import dev.emortal.minestom.core.module.MinestomModule;
 import dev.emortal.minestom.core.module.kubernetes.command.agones.AgonesCommand;
 import dev.emortal.minestom.core.module.kubernetes.command.currentserver.CurrentServerCommand;
 import io.grpc.ManagedChannel;
@@ -27,10 +27,11 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.TimeUnit;
 
 @ModuleData(name = "kubernetes")
-public final class KubernetesModule extends Module {
+public final class KubernetesModule extends MinestomModule {
     private static final Logger LOGGER = LoggerFactory.getLogger(KubernetesModule.class);
 
     private static final boolean KUBERNETES_ENABLED = Environment.isProduction(); // Kubernetes support can only be enabled if run in-cluster
@@ -48,8 +49,9 @@ public final class KubernetesModule extends Module {
 
     private final AgonesSDKProto.KeyValue[] additionalLabels;
 
-    private ApiClient apiClient;
-    private ProtoClient protoClient;
+    // Created in the background, as creating the client reads the service account and builds an HTTP client
+    private @Nullable CompletableFuture<ApiClient> apiClient;
+    private @Nullable CompletableFuture<ProtoClient> protoClient;
 
     private SDKGrpc.SDKStub sdk;
     private dev.agones.sdk.beta.SDKGrpc.SDKStub betaSdk;
@@ -60,18 +62,12 @@ public final class KubernetesModule extends Module {
     }
 
     @Override
-    public boolean onLoad() {
+    protected boolean load() {
         // kubernetes
         if (KUBERNETES_ENABLED) {
-            try {
-                this.apiClient = Config.defaultClient().setDebugging(KUBE_CLIENT_DEBUG);
-                Configuration.setDefaultApiClient(this.apiClient);
-
-                this.protoClient = new ProtoClient(this.apiClient);
-            } catch (IOException exception) {
-                LOGGER.error("Failed to initialise Kubernetes client", exception);
-                return false;
-            }
+            this.apiClient = CompletableFuture.supplyAsync(this::createApiClient,
+                    task -> Thread.ofVirtual().name("kubernetes-client").start(task));
+            this.protoClient = this.apiClient.thenApply(client -> client == null ? null : new ProtoClient(client));
         }
 
         // player tracker
@@ -84,6 +80,17 @@ public final class KubernetesModule extends Module {
         return true;
     }
 
+    private @Nullable ApiClient createApiClient() {
+        try {
+            ApiClient client = Config.defaultClient().setDebugging(KUBE_CLIENT_DEBUG);
+            Configuration.setDefaultApiClient(client);
+            return client;
+        } catch (IOException exception) {
+            LOGGER.error("Failed to initialise Kubernetes client", exception);
+            return null;
+        }
+    }
+
     private void loadAgones() {
         ManagedChannel channel = ManagedChannelBuilder.forAddress(AGONES_ADDRESS, AGONES_GRPC_PORT).usePlaintext().build();
         this.sdk = SDKGrpc.newStub(channel);
@@ -170,12 +177,22 @@ public final class KubernetesModule extends Module {
         this.sdk.ready(AgonesSDKProto.Empty.getDefaultInstance(), new IgnoredStreamObserver<>());
     }
 
+    /**
+     * Blocks until the client has been created.
+     *
+     * @return the client, or null if not running in a cluster or the client couldn't be created
+     */
     public @Nullable ApiClient getApiClient() {
-        return this.apiClient;
+        return this.apiClient == null ? null : this.apiClient.join();
     }
 
+    /**
+     * Blocks until the client has been created.
+     *
+     * @return the client, or null if not running in a cluster or the client couldn't be created
+     */
     public @Nullable ProtoClient getProtoClient() {
-        return this.protoClient;
+        return this.protoClient == null ? null : this.protoClient.join();
     }
 
     public @Nullable SDKGrpc.SDKStub getAgonesSdk() {
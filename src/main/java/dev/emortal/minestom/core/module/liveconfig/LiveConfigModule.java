@@ -3,10 +3,10 @@ package dev.emortal.minestom.core.module.liveconfig;
 import dev.emortal.api.liveconfigparser.configs.ConfigProvider;
 import dev.emortal.api.liveconfigparser.configs.LiveConfigCollection;
 import dev.emortal.api.liveconfigparser.configs.gamemode.GameModeConfig;
-import dev.emortal.api.modules.Module;
 import dev.emortal.api.modules.annotation.Dependency;
 import dev.emortal.api.modules.annotation.ModuleData;
 import dev.emortal.api.modules.env.ModuleEnvironment;
+import dev.emortal.minestom.core.module.MinestomModule;
 import dev.emortal.minestom.core.module.kubernetes.KubernetesModule;
 import io.kubernetes.client.openapi.ApiClient;
 import org.jetbrains.annotations.NotNull;
@@ -15,47 +15,62 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
 
 @ModuleData(name = "live-config", dependencies = {@Dependency(name = "kubernetes", required = false)})
-public final class LiveConfigModule extends Module {
+public final class LiveConfigModule extends MinestomModule {
     private static final Logger LOGGER = LoggerFactory.getLogger(LiveConfigModule.class);
 
-    private @Nullable LiveConfigCollection configCollection;
+    // Loaded in the background, as fetching the configs is blocking I/O
+    private @Nullable CompletableFuture<LiveConfigCollection> configCollection;
 
     public LiveConfigModule(@NotNull ModuleEnvironment environment) {
         super(environment);
     }
 
+    /**
+     * Blocks until the live configs have been loaded.
+     *
+     * @return the game mode configs, or null if the live configs couldn't be loaded
+     */
     public @Nullable ConfigProvider<GameModeConfig> getGameModes() {
-        if (this.configCollection == null) return null;
-        return this.configCollection.gameModes();
+        LiveConfigCollection collection = this.configCollection == null ? null : this.configCollection.join();
+        if (collection == null) return null;
+        return collection.gameModes();
     }
 
     @Override
-    public boolean onLoad() {
+    protected boolean load() {
         KubernetesModule kubernetesModule = this.getOptionalModule(KubernetesModule.class);
         if (kubernetesModule == null) {
             LOGGER.warn("Kubernetes not available. Live config module will watch files locally.");
         }
-        ApiClient apiClient = kubernetesModule != null ? kubernetesModule.getApiClient() : null;
-
-        try {
-            this.configCollection = LiveConfigCollection.create(apiClient);
-            return true;
-        } catch (IOException exception) {
-            LOGGER.error("Failed to load live configs", exception);
-            return false;
-        }
+
+        this.configCollection = CompletableFuture.supplyAsync(() -> {
+            ApiClient apiClient = kubernetesModule != null ? kubernetesModule.getApiClient() : null;
+
+            try {
+                return LiveConfigCollection.create(apiClient);
+            } catch (IOException exception) {
+                LOGGER.error("Failed to load live configs", exception);
+                return null;
+            }
+        }, task -> Thread.ofVirtual().name("live-config-load").start(task));
+        return true;
     }
 
     @Override
     public void onUnload() {
         if (this.configCollection == null) return;
 
-        try {
-            this.configCollection.close();
-        } catch (IOException exception) {
-            LOGGER.error("Failed to close live config collection", exception);
-        }
+        this.configCollection.thenAccept(collection -> {
+            if (collection == null) return;
+
+            try {
+                collection.close();
+            } catch (IOException exception) {
+                LOGGER.error("Failed to close live config collection", exception);
+            }
+        });
     }
 }
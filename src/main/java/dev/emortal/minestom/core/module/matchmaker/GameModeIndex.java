@@ -0,0 +1,165 @@
+package dev.emortal.minestom.core.module.matchmaker;
+
+import dev.emortal.api.liveconfigparser.configs.ConfigProvider;
+import dev.emortal.api.liveconfigparser.configs.gamemode.GameModeConfig;
+import net.minestom.server.command.builder.suggestion.SuggestionEntry;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An index of the enabled game modes by friendly name, for looking up modes typed by players.
+ * <p>
+ * Holds a case-insensitive map of exact names, and a prefix trie whose nodes hold the suggestions for their prefix, so
+ * suggesting modes costs a walk of the input and doesn't allocate. The index is an immutable snapshot, rebuilt and
+ * swapped in whole when the game mode configs change, so readers never see a partially built index.
+ * <p>
+ * The config provider doesn't notify of changes, so the configs are checked for changes periodically on a
+ * background thread, until {@link #shutdown()}.
+ */
+public final class GameModeIndex {
+    private static final Logger LOGGER = LoggerFactory.getLogger(GameModeIndex.class);
+
+    private static final long REFRESH_INTERVAL_SECONDS = 1;
+
+    private final @NotNull ConfigProvider<GameModeConfig> gameModes;
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("game-mode-index").daemon().factory());
+    private volatile @NotNull Snapshot snapshot;
+
+    public GameModeIndex(@NotNull ConfigProvider<GameModeConfig> gameModes) {
+        this.gameModes = gameModes;
+        this.snapshot = Snapshot.build(List.copyOf(gameModes.allConfigs()));
+
+        this.scheduler.scheduleWithFixedDelay(this::refresh, REFRESH_INTERVAL_SECONDS, REFRESH_INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private void refresh() {
+        try {
+            Collection<GameModeConfig> configs = this.gameModes.allConfigs();
+            if (!changed(configs, this.snapshot.configs())) return;
+
+            this.snapshot = Snapshot.build(List.copyOf(configs));
+        } catch (RuntimeException exception) {
+            // Don't let an unexpected error cancel the scheduled task
+            LOGGER.error("Failed to refresh game mode index", exception);
+        }
+    }
+
+    /**
+     * Updated configs are parsed into new instances, so configs are compared by identity, which is cheaper than
+     * comparing every field and doesn't need a copy of the current configs.
+     */
+    private static boolean changed(@NotNull Collection<GameModeConfig> current, @NotNull List<GameModeConfig> indexed) {
+        if (current.size() != indexed.size()) return true;
+
+        int i = 0;
+        for (GameModeConfig config : current) {
+            if (config != indexed.get(i++)) return true;
+        }
+        return false;
+    }
+
+    public void shutdown() {
+        this.scheduler.shutdownNow();
+    }
+
+    /**
+     * @param name the friendly name of the mode, in any case
+     * @return the enabled mode with the given name, or null if there is none
+     */
+    public @Nullable GameModeConfig find(@NotNull String name) {
+        return this.snapshot.byName().get(name.toLowerCase(Locale.ROOT));
+    }
+
+    /**
+     * @param prefix the start of the friendly name, in any case. A blank prefix matches all enabled modes.
+     * @return suggestions for the enabled modes whose names start with the prefix
+     */
+    public @NotNull List<SuggestionEntry> suggest(@NotNull String prefix) {
+        Node node = this.snapshot.root();
+        if (prefix.isBlank() || prefix.charAt(0) == 0) return node.suggestions;
+
+        for (int i = 0; i < prefix.length() && node != null; i++) {
+            node = node.child(Character.toLowerCase(prefix.charAt(i)));
+        }
+        return node == null ? List.of() : node.suggestions;
+    }
+
+    private record Snapshot(@NotNull List<GameModeConfig> configs, @NotNull Map<String, GameModeConfig> byName,
+                            @NotNull Node root) {
+
+        static @NotNull Snapshot build(@NotNull List<GameModeConfig> configs) {
+            Map<String, GameModeConfig> byName = new HashMap<>();
+            NodeBuilder root = new NodeBuilder();
+
+            for (GameModeConfig config : configs) {
+                if (!config.enabled()) continue;
+
+                String name = config.friendlyName();
+                if (byName.putIfAbsent(name.toLowerCase(Locale.ROOT), config) != null) continue; // First mode wins
+
+                SuggestionEntry entry = new SuggestionEntry(name);
+                NodeBuilder node = root;
+                node.suggestions.add(entry);
+                for (int i = 0; i < name.length(); i++) {
+                    node = node.children.computeIfAbsent(Character.toLowerCase(name.charAt(i)), key -> new NodeBuilder());
+                    node.suggestions.add(entry);
+                }
+            }
+
+            return new Snapshot(configs, Map.copyOf(byName), root.build());
+        }
+    }
+
+    private static final class Node {
+
+        private final char[] keys; // Sorted, for binary search
+        private final Node[] children;
+        private final @NotNull List<SuggestionEntry> suggestions;
+
+        Node(char[] keys, Node[] children, @NotNull List<SuggestionEntry> suggestions) {
+            this.keys = keys;
+            this.children = children;
+            this.suggestions = suggestions;
+        }
+
+        @Nullable Node child(char key) {
+            int index = Arrays.binarySearch(this.keys, key);
+            return index < 0 ? null : this.children[index];
+        }
+    }
+
+    private static final class NodeBuilder {
+
+        final Map<Character, NodeBuilder> children = new TreeMap<>();
+        final List<SuggestionEntry> suggestions = new ArrayList<>();
+
+        @NotNull Node build() {
+            char[] keys = new char[this.children.size()];
+            Node[] nodes = new Node[this.children.size()];
+
+            int i = 0;
+            for (Map.Entry<Character, NodeBuilder> entry : this.children.entrySet()) {
+                keys[i] = entry.getKey();
+                nodes[i] = entry.getValue().build();
+                i++;
+            }
+
+            return new Node(keys, nodes, List.copyOf(this.suggestions));
+        }
+    }
+}
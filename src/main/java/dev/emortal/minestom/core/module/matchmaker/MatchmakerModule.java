@@ -19,6 +19,7 @@ import dev.emortal.minestom.core.module.messaging.MessagingModule;
 import net.minestom.server.MinecraftServer;
 import net.minestom.server.command.CommandManager;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -27,6 +28,7 @@ public final class MatchmakerModule extends MinestomModule {
     private static final Logger LOGGER = LoggerFactory.getLogger(MatchmakerModule.class);
 
     private final @NotNull MatchmakingSession.Creator sessionCreator;
+    private @Nullable GameModeIndex gameModeIndex;
 
     public MatchmakerModule(@NotNull ModuleEnvironment environment) {
         this(environment, DefaultMatchmakingSessionImpl::new);
@@ -38,7 +40,7 @@ public final class MatchmakerModule extends MinestomModule {
     }
 
     @Override
-    public boolean onLoad() {
+    protected boolean load() {
         MessagingModule messaging = this.getModule(MessagingModule.class);
         LiveConfigModule liveConfig = this.getModule(LiveConfigModule.class);
 
@@ -55,7 +57,8 @@ public final class MatchmakerModule extends MinestomModule {
         }
 
         CommandManager commandManager = MinecraftServer.getCommandManager();
-        commandManager.register(new QueueCommand(service, gameModes));
+        this.gameModeIndex = new GameModeIndex(gameModes);
+        commandManager.register(new QueueCommand(service, this.gameModeIndex));
         commandManager.register(new DequeueCommand(service));
 
         new MatchmakingSessionManager(this.eventNode, service, messaging, gameModes, this.sessionCreator);
@@ -65,5 +68,6 @@ public final class MatchmakerModule extends MinestomModule {
 
     @Override
     public void onUnload() {
+        if (this.gameModeIndex != null) this.gameModeIndex.shutdown();
     }
 }
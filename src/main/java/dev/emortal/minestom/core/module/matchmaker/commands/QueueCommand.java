@@ -1,16 +1,15 @@
 package dev.emortal.minestom.core.module.matchmaker.commands;
 
-import dev.emortal.api.liveconfigparser.configs.ConfigProvider;
 import dev.emortal.api.liveconfigparser.configs.gamemode.GameModeConfig;
 import dev.emortal.api.service.matchmaker.MatchmakerService;
 import dev.emortal.api.service.matchmaker.QueuePlayerResult;
 import dev.emortal.minestom.core.module.matchmaker.CommonMatchmakerError;
+import dev.emortal.minestom.core.module.matchmaker.GameModeIndex;
+import dev.emortal.minestom.core.utils.MiniMessageTemplate;
 import io.grpc.StatusRuntimeException;
 
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
-import net.kyori.adventure.text.minimessage.MiniMessage;
-import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
 import net.minestom.server.command.CommandSender;
 import net.minestom.server.command.builder.Command;
 import net.minestom.server.command.builder.CommandContext;
@@ -22,16 +21,20 @@ import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.stream.Stream;
+import java.util.List;
 
 public final class QueueCommand extends Command {
     private static final Logger LOGGER = LoggerFactory.getLogger(QueueCommand.class);
-    private static final MiniMessage MINI_MESSAGE = MiniMessage.miniMessage();
+
+    private static final MiniMessageTemplate QUEUE_SUCCESS = MiniMessageTemplate.compile(CommonMatchmakerError.QUEUE_SUCCESS, "mode");
+    private static final MiniMessageTemplate QUEUE_ERR_UNKNOWN = MiniMessageTemplate.compile(CommonMatchmakerError.QUEUE_ERR_UNKNOWN, "mode");
+    private static final MiniMessageTemplate QUEUE_ERR_PARTY_TOO_LARGE =
+            MiniMessageTemplate.compile(CommonMatchmakerError.QUEUE_ERR_PARTY_TOO_LARGE, "mode", "max");
 
     private final MatchmakerService matchmaker;
-    private final ConfigProvider<GameModeConfig> gameModes;
+    private final GameModeIndex gameModes;
 
-    public QueueCommand(@NotNull MatchmakerService matchmaker, @NotNull ConfigProvider<GameModeConfig> gameModes) {
+    public QueueCommand(@NotNull MatchmakerService matchmaker, @NotNull GameModeIndex gameModes) {
         super("play", "queue");
         this.matchmaker = matchmaker;
         this.gameModes = gameModes;
@@ -40,17 +43,10 @@ public final class QueueCommand extends Command {
 
         var modeArg = new ArgumentStringArray("mode");
         modeArg.setSuggestionCallback((sender, context, suggestion) -> {
-            String inputLower = context.getRaw("mode").toLowerCase();
-
-            Stream<String> configNames = this.gameModes.allConfigs().stream()
-                    .filter(GameModeConfig::enabled)
-                    .map(GameModeConfig::friendlyName);
-
-            if (!inputLower.isEmpty() && !inputLower.isBlank() && inputLower.charAt(0) != 0) {
-                configNames = configNames.filter(name -> name.toLowerCase().startsWith(inputLower));
+            List<SuggestionEntry> entries = this.gameModes.suggest(context.getRaw("mode"));
+            for (int i = 0; i < entries.size(); i++) {
+                suggestion.addEntry(entries.get(i));
             }
-
-            configNames.map(SuggestionEntry::new).forEach(suggestion::addEntry);
         });
 
         this.addSyntax(this::execute, modeArg);
@@ -61,12 +57,7 @@ public final class QueueCommand extends Command {
         String[] modeArg = context.get("mode");
         String modeName = String.join(" ", modeArg);
 
-        GameModeConfig mode = this.gameModes.allConfigs().stream()
-                .filter(GameModeConfig::enabled)
-                .filter(config -> config.friendlyName().equalsIgnoreCase(modeName))
-                .findFirst()
-                .orElse(null);
-
+        GameModeConfig mode = this.gameModes.find(modeName);
         if (mode == null) {
             sender.sendMessage("Invalid mode " + modeName + "!");
             return;
@@ -82,31 +73,24 @@ public final class QueueCommand extends Command {
         }
 
         switch (result) {
-            case SUCCESS -> {
-                var modeNamePlaceholder = Placeholder.unparsed("mode", mode.friendlyName());
-                sender.sendMessage(MINI_MESSAGE.deserialize(CommonMatchmakerError.QUEUE_SUCCESS, modeNamePlaceholder));
-            }
+            case SUCCESS -> sender.sendMessage(QUEUE_SUCCESS.render(mode.friendlyName()));
             case ALREADY_IN_QUEUE -> sender.sendMessage(CommonMatchmakerError.QUEUE_ERR_ALREADY_IN_QUEUE);
             case NO_PERMISSION -> sender.sendMessage(CommonMatchmakerError.PLAYER_PERMISSION_DENIED);
             case INVALID_MAP -> {
                 LOGGER.error("Invalid map for gamemode '{}'", mode.friendlyName());
-                var modeNamePlaceholder = Placeholder.unparsed("mode", mode.friendlyName());
-                sender.sendMessage(MINI_MESSAGE.deserialize(CommonMatchmakerError.QUEUE_ERR_UNKNOWN, modeNamePlaceholder));
+                sender.sendMessage(QUEUE_ERR_UNKNOWN.render(mode.friendlyName()));
             }
             case PARTY_TOO_LARGE -> {
-                var modeNamePlaceholder = Placeholder.unparsed("mode", mode.friendlyName());
-                var max = Placeholder.unparsed("max", String.valueOf(mode.partyRestrictions().maxSize()));
-                sender.sendMessage(MINI_MESSAGE.deserialize(CommonMatchmakerError.QUEUE_ERR_PARTY_TOO_LARGE, modeNamePlaceholder, max));
+                String max = String.valueOf(mode.partyRestrictions().maxSize());
+                sender.sendMessage(QUEUE_ERR_PARTY_TOO_LARGE.render(mode.friendlyName(), max));
             }
             case INVALID_GAME_MODE -> {
                 LOGGER.error("Invalid gamemode '{}'", mode.friendlyName());
-                var modeNamePlaceholder = Placeholder.unparsed("mode", mode.friendlyName());
-                sender.sendMessage(MINI_MESSAGE.deserialize(CommonMatchmakerError.QUEUE_ERR_UNKNOWN, modeNamePlaceholder));
+                sender.sendMessage(QUEUE_ERR_UNKNOWN.render(mode.friendlyName()));
             }
             case GAME_MODE_DISABLED -> {
                 LOGGER.error("Gamemode '{}' is disabled", mode.friendlyName());
-                var modeNamePlaceholder = Placeholder.unparsed("mode", mode.friendlyName());
-                sender.sendMessage(MINI_MESSAGE.deserialize(CommonMatchmakerError.QUEUE_ERR_UNKNOWN, modeNamePlaceholder));
+                sender.sendMessage(QUEUE_ERR_UNKNOWN.render(mode.friendlyName()));
             }
         }
     }
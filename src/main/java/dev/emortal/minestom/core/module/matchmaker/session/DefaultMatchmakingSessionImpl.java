@@ -4,10 +4,9 @@ import dev.emortal.api.liveconfigparser.configs.gamemode.GameModeConfig;
 import dev.emortal.api.model.matchmaker.PendingMatch;
 import dev.emortal.api.model.matchmaker.Ticket;
 import dev.emortal.api.utils.ProtoTimestampConverter;
+import dev.emortal.minestom.core.utils.MiniMessageTemplate;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
-import net.kyori.adventure.text.minimessage.MiniMessage;
-import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
 import net.minestom.server.entity.Player;
 import net.minestom.server.timer.TaskSchedule;
 import org.jetbrains.annotations.NotNull;
@@ -23,13 +22,11 @@ import java.util.function.Supplier;
 public final class DefaultMatchmakingSessionImpl extends MatchmakingSession {
     private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor();
 
-    private static final MiniMessage MINI_MESSAGE = MiniMessage.miniMessage();
-
     // TODO let's have a 3, 2, 1 countdown before they get teleported.
-    private static final String MATCH_FOUND_MESSAGE = "<green><mode> match found!";
-    private static final String TELEPORTING_IN_MESSAGE = "<green>Teleporting in <time> seconds...</green>";
+    private static final MiniMessageTemplate MATCH_FOUND_MESSAGE = MiniMessageTemplate.compile("<green><mode> match found!", "mode");
+    private static final MiniMessageTemplate TELEPORTING_IN_MESSAGE = MiniMessageTemplate.compile("<green>Teleporting in <time> seconds...</green>", "time");
     private static final Component TELEPORTING_MESSAGE = Component.text("Teleporting...", NamedTextColor.GREEN);
-    private static final String MATCH_CANCELLED_MESSAGE = "<mode> match cancelled.";
+    private static final MiniMessageTemplate MATCH_CANCELLED_MESSAGE = MiniMessageTemplate.compile("<mode> match cancelled.", "mode");
 
     private final @NotNull ScheduledFuture<?> notificationTask;
     private final @NotNull GameModeConfig gameMode;
@@ -54,7 +51,7 @@ public final class DefaultMatchmakingSessionImpl extends MatchmakingSession {
 
     @Override
     public void onPendingMatchCreate(@NotNull PendingMatch match) {
-        this.player.sendMessage(MINI_MESSAGE.deserialize(MATCH_FOUND_MESSAGE, Placeholder.unparsed("mode", this.gameMode.friendlyName())));
+        this.player.sendMessage(MATCH_FOUND_MESSAGE.render(this.gameMode.friendlyName()));
         this.player.scheduler().submitTask(new NotifyTeleportTimeTask(this.player, match));
     }
 
@@ -65,8 +62,7 @@ public final class DefaultMatchmakingSessionImpl extends MatchmakingSession {
 
     @Override
     public void onPendingMatchCancelled(@NotNull PendingMatch match) {
-        var modeName = Placeholder.unparsed("mode", this.gameMode.friendlyName());
-        this.player.sendMessage(MINI_MESSAGE.deserialize(MATCH_CANCELLED_MESSAGE, modeName));
+        this.player.sendMessage(MATCH_CANCELLED_MESSAGE.render(this.gameMode.friendlyName()));
     }
 
     private void notifyPlayer() {
@@ -106,7 +102,7 @@ public final class DefaultMatchmakingSessionImpl extends MatchmakingSession {
             }
 
             int secondsLeft = this.teleportSeconds - this.count;
-            this.player.sendMessage(MINI_MESSAGE.deserialize(TELEPORTING_IN_MESSAGE, Placeholder.unparsed("time", String.valueOf(secondsLeft))));
+            this.player.sendMessage(TELEPORTING_IN_MESSAGE.render(String.valueOf(secondsLeft)));
 
             this.count++;
             return TaskSchedule.seconds(1);
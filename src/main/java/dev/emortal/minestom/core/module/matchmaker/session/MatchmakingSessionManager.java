@@ -1,5 +1,6 @@
 package dev.emortal.minestom.core.module.matchmaker.session;
 
+import com.google.common.hash.Hashing;
 import dev.emortal.api.grpc.matchmaker.MatchmakerProto.GetPlayerQueueInfoResponse;
 import dev.emortal.api.liveconfigparser.configs.ConfigProvider;
 import dev.emortal.api.liveconfigparser.configs.gamemode.GameModeConfig;
@@ -7,12 +8,12 @@ import dev.emortal.api.message.matchmaker.*;
 import dev.emortal.api.model.matchmaker.PendingMatch;
 import dev.emortal.api.model.matchmaker.Ticket;
 import dev.emortal.api.service.matchmaker.MatchmakerService;
+import dev.emortal.minestom.core.module.messaging.LocalPlayerIndex;
 import dev.emortal.minestom.core.module.messaging.MessagingModule;
+import dev.emortal.minestom.core.utils.MiniMessageTemplate;
 import io.grpc.StatusRuntimeException;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
-import net.kyori.adventure.text.minimessage.MiniMessage;
-import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
 import net.minestom.server.MinecraftServer;
 import net.minestom.server.entity.Player;
 import net.minestom.server.event.Event;
@@ -23,6 +24,8 @@ import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
@@ -31,8 +34,10 @@ import java.util.function.BiConsumer;
 public final class MatchmakingSessionManager {
     private static final Logger LOGGER = LoggerFactory.getLogger(MatchmakingSessionManager.class);
 
-    private static final String QUEUE_RESTORED_MESSAGE = "<green>Your queue for <mode> has been transferred!</green>";
-    private static final String QUEUE_RESTORE_FAILED_MESSAGE = "<red>Your queue for <mode> could not be transferred! Please tell a staff member.</red>";
+    private static final MiniMessageTemplate QUEUE_RESTORED_MESSAGE =
+            MiniMessageTemplate.compile("<green>Your queue for <mode> has been transferred!</green>", "mode");
+    private static final MiniMessageTemplate QUEUE_RESTORE_FAILED_MESSAGE =
+            MiniMessageTemplate.compile("<red>Your queue for <mode> could not be transferred! Please tell a staff member.</red>", "mode");
 
     private final @NotNull MatchmakerService matchmaker;
     private final @NotNull MatchmakingSession.Creator sessionCreator;
@@ -59,28 +64,39 @@ public final class MatchmakingSessionManager {
             this.destroySession(session);
         });
 
-        messaging.addListener(TicketCreatedMessage.class, message -> this.onTicketCreate(message.getTicket()));
+        // Messages about tickets with no local players are dropped on the consumer thread, before they reach the tick.
+        // Filters must not depend on state changed by handlers (e.g. the ticket cache), as handlers run later.
+        LocalPlayerIndex localPlayers = messaging.getLocalPlayers();
 
-        messaging.addListener(TicketDeletedMessage.class, message -> this.onTicketDelete(message.getTicket(), message.getReason()));
+        // A redelivered ticket creation would rebuild the ticket's sessions. A ticket is only created once, so its ID
+        // identifies the message.
+        messaging.deduplicate(TicketCreatedMessage.class,
+                message -> Hashing.murmur3_128().hashString(message.getTicket().getId(), StandardCharsets.UTF_8).asLong());
+        messaging.addTickListener(TicketCreatedMessage.class,
+                message -> localPlayers.containsAny(message.getTicket().getPlayerIdsList()),
+                message -> this.onTicketCreate(message.getTicket()));
+
+        messaging.addTickListener(TicketDeletedMessage.class, message -> this.onTicketDelete(message.getTicket(), message.getReason()));
 
         // NOTE: This logic requires on this method being run synchronously.
         // NOTE 2: This logic is only for players leaving/joining a ticket. It doesn't need anything else.
-        messaging.addListener(TicketUpdatedMessage.class, message -> this.onTicketUpdated(message.getNewTicket()));
+        messaging.addTickListener(TicketUpdatedMessage.class, message -> this.onTicketUpdated(message.getNewTicket()));
 
-        messaging.addListener(PendingMatchCreatedMessage.class,
+        messaging.addTickListener(PendingMatchCreatedMessage.class,
                 message -> this.onPendingMatchChange(message.getPendingMatch(), MatchmakingSession::onPendingMatchCreate));
 
-        messaging.addListener(PendingMatchUpdatedMessage.class,
+        messaging.addTickListener(PendingMatchUpdatedMessage.class,
                 message -> this.onPendingMatchChange(message.getPendingMatch(), MatchmakingSession::onPendingMatchUpdate));
 
-        messaging.addListener(PendingMatchDeletedMessage.class, message -> {
+        messaging.addTickListener(PendingMatchDeletedMessage.class, message -> {
             // Ignore this message as it's handled by the MatchCreatedMessage (and the proxy will message them :D)
             if (message.getReason() == PendingMatchDeletedMessage.Reason.MATCH_CREATED) return;
 
             this.onPendingMatchChange(message.getPendingMatch(), MatchmakingSession::onPendingMatchCancelled);
         });
 
-        messaging.addListener(MatchCreatedMessage.class, message -> {
+        messaging.addTickListener(MatchCreatedMessage.class,
+                message -> hasLocalPlayer(localPlayers, message.getMatch().getTicketsList()), message -> {
             for (Ticket ticket : message.getMatch().getTicketsList()) {
                 for (String playerId : ticket.getPlayerIdsList()) {
                     this.deleteSession(playerId, MatchmakingSession.DeleteReason.MATCH_CREATED, false);
@@ -89,6 +105,13 @@ public final class MatchmakingSessionManager {
         });
     }
 
+    private static boolean hasLocalPlayer(@NotNull LocalPlayerIndex localPlayers, @NotNull List<Ticket> tickets) {
+        for (Ticket ticket : tickets) {
+            if (localPlayers.containsAny(ticket.getPlayerIdsList())) return true;
+        }
+        return false;
+    }
+
     private void onTicketCreate(@NotNull Ticket ticket) {
         boolean shouldCache = false;
         for (String playerId : ticket.getPlayerIdsList()) {
@@ -210,10 +233,10 @@ public final class MatchmakingSessionManager {
         Ticket ticket = queueInfo.getTicket();
         GameModeConfig mode = this.gameModes.getConfig(ticket.getGameModeId());
 
-        var modeName = Placeholder.unparsed("mode", mode == null ? ticket.getGameModeId() : mode.friendlyName());
+        String modeName = mode == null ? ticket.getGameModeId() : mode.friendlyName();
         if (mode == null) {
             LOGGER.error("Failed to get game mode config '{}'", ticket.getGameModeId());
-            player.sendMessage(MiniMessage.miniMessage().deserialize(QUEUE_RESTORE_FAILED_MESSAGE, modeName));
+            player.sendMessage(QUEUE_RESTORE_FAILED_MESSAGE.render(modeName));
             return;
         }
 
@@ -221,6 +244,6 @@ public final class MatchmakingSessionManager {
         this.sessions.put(playerId, session);
         this.ticketCache.put(ticket.getId(), ticket);
 
-        player.sendMessage(MiniMessage.miniMessage().deserialize(QUEUE_RESTORED_MESSAGE, modeName));
+        player.sendMessage(QUEUE_RESTORED_MESSAGE.render(modeName));
     }
 }
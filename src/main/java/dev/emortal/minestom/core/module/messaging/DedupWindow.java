@@ -0,0 +1,101 @@
+package dev.emortal.minestom.core.module.messaging;
+
+/**
+ * A bounded set of recently seen 64-bit message keys, forgetting keys after a time window.
+ * <p>
+ * Keys are kept in primitive arrays: a ring buffer in arrival order for expiry, and an open-addressed hash table for
+ * lookup. When full, the oldest key is forgotten early.
+ */
+final class DedupWindow {
+    private static final long EMPTY = 0; // marks an empty table slot, so a key of 0 is stored as 1
+
+    private final long windowNanos;
+    private final int capacity;
+
+    private final long[] ringKeys;
+    private final long[] ringTimes;
+    private int head;
+    private int size;
+
+    private final long[] table;
+    private final int mask;
+
+    DedupWindow(int capacity, long windowNanos) {
+        this.capacity = capacity;
+        this.windowNanos = windowNanos;
+        this.ringKeys = new long[capacity];
+        this.ringTimes = new long[capacity];
+
+        // At most half full, keeping probe sequences short
+        int tableSize = Integer.highestOneBit(capacity * 2 - 1) << 1;
+        this.table = new long[tableSize];
+        this.mask = tableSize - 1;
+    }
+
+    /**
+     * @return true if the key was not seen within the window, recording it as seen
+     */
+    synchronized boolean firstSeen(long key) {
+        if (key == EMPTY) key = 1;
+
+        long now = System.nanoTime();
+        while (this.size > 0 && now - this.ringTimes[this.head] > this.windowNanos) {
+            this.removeOldest();
+        }
+
+        if (this.contains(key)) return false;
+
+        if (this.size == this.capacity) this.removeOldest();
+        this.insert(key);
+
+        int tail = (this.head + this.size) % this.capacity;
+        this.ringKeys[tail] = key;
+        this.ringTimes[tail] = now;
+        this.size++;
+        return true;
+    }
+
+    private void removeOldest() {
+        this.remove(this.ringKeys[this.head]);
+        this.head = (this.head + 1) % this.capacity;
+        this.size--;
+    }
+
+    private boolean contains(long key) {
+        for (int i = this.slot(key); this.table[i] != EMPTY; i = (i + 1) & this.mask) {
+            if (this.table[i] == key) return true;
+        }
+        return false;
+    }
+
+    private void insert(long key) {
+        int i = this.slot(key);
+        while (this.table[i] != EMPTY) i = (i + 1) & this.mask;
+        this.table[i] = key;
+    }
+
+    private void remove(long key) {
+        int i = this.slot(key);
+        while (this.table[i] != key) {
+            if (this.table[i] == EMPTY) return;
+            i = (i + 1) & this.mask;
+        }
+
+        // Shift following entries back into the gap, so lookups don't stop early at it
+        for (int j = (i + 1) & this.mask; this.table[j] != EMPTY; j = (j + 1) & this.mask) {
+            int home = this.slot(this.table[j]);
+            boolean reachable = i <= j ? (i < home && home <= j) : (i < home || home <= j);
+            if (reachable) continue;
+
+            this.table[i] = this.table[j];
+            i = j;
+        }
+        this.table[i] = EMPTY;
+    }
+
+    private int slot(long key) {
+        // Keys are hashes, but mix anyway in case a caller uses sequential IDs
+        long mixed = key * 0x9E3779B97F4A7C15L;
+        return (int) (mixed >>> 32) & this.mask;
+    }
+}
@@ -0,0 +1,115 @@
+package dev.emortal.minestom.core.module.messaging;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.MalformedObjectNameException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Exposes the metrics of the Kafka consumer, read from the JMX beans registered by the Kafka client.
+ * <p>
+ * The consumer is created and owned by {@link dev.emortal.api.utils.kafka.FriendlyKafkaConsumer}, so its metrics
+ * can't be bound directly. Where several consumers exist, client-level gauges report the highest value.
+ */
+public final class KafkaConsumerMetrics implements MeterBinder {
+    private static final Logger LOGGER = LoggerFactory.getLogger(KafkaConsumerMetrics.class);
+
+    private static final ObjectName CONSUMER = objectName("kafka.consumer:type=consumer-metrics,client-id=*");
+    private static final ObjectName FETCH_MANAGER = objectName("kafka.consumer:type=consumer-fetch-manager-metrics,client-id=*");
+    private static final ObjectName PARTITION = objectName("kafka.consumer:type=consumer-fetch-manager-metrics,client-id=*,topic=*,partition=*");
+
+    private final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+    // JMX queries are too slow for the tick thread
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("kafka-consumer-metrics").daemon().factory());
+
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        Gauge.builder("minestom.messaging.consumer.records_per_fetch", () -> this.readMax(FETCH_MANAGER, "records-per-request-avg"))
+                .description("The average amount of records returned per fetch request")
+                .baseUnit("records")
+                .register(registry);
+
+        Gauge.builder("minestom.messaging.consumer.fetch_latency", () -> this.readMax(FETCH_MANAGER, "fetch-latency-avg"))
+                .description("The average time taken for a fetch request")
+                .baseUnit("milliseconds")
+                .register(registry);
+
+        Gauge.builder("minestom.messaging.consumer.time_between_polls", () -> this.readMax(CONSUMER, "time-between-poll-avg"))
+                .description("The average time between polls, i.e. the time taken to hand each batch of records to the dispatcher")
+                .baseUnit("milliseconds")
+                .register(registry);
+
+        Gauge.builder("minestom.messaging.consumer.poll_idle_ratio", () -> this.readMax(CONSUMER, "poll-idle-ratio-avg"))
+                .description("The fraction of time the consumer spent waiting in poll, rather than handling records")
+                .register(registry);
+
+        MultiGauge lag = MultiGauge.builder("minestom.messaging.consumer.lag")
+                .description("The amount of records the consumer is behind the end of each partition")
+                .baseUnit("records")
+                .register(registry);
+
+        // Partitions come and go with rebalances, so the lag rows are rebuilt periodically
+        this.scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                lag.register(this.readPartitionLag(), true);
+            } catch (RuntimeException exception) {
+                // Don't let an unexpected error cancel the scheduled task
+                LOGGER.error("Failed to read Kafka partition lag", exception);
+            }
+        }, 0, 10, TimeUnit.SECONDS);
+    }
+
+    private double readMax(@NotNull ObjectName pattern, @NotNull String attribute) {
+        double max = Double.NaN;
+        for (ObjectName name : this.server.queryNames(pattern, null)) {
+            double value = this.read(name, attribute);
+            if (Double.isNaN(max) || value > max) max = value;
+        }
+        return max;
+    }
+
+    private @NotNull List<MultiGauge.Row<?>> readPartitionLag() {
+        List<MultiGauge.Row<?>> rows = new ArrayList<>();
+        for (ObjectName name : this.server.queryNames(PARTITION, null)) {
+            double value = this.read(name, "records-lag");
+            if (Double.isNaN(value)) continue;
+
+            Tags tags = Tags.of("topic", name.getKeyProperty("topic"), "partition", name.getKeyProperty("partition"));
+            rows.add(MultiGauge.Row.of(tags, value));
+        }
+        return rows;
+    }
+
+    private double read(@NotNull ObjectName name, @NotNull String attribute) {
+        try {
+            return ((Number) this.server.getAttribute(name, attribute)).doubleValue();
+        } catch (JMException exception) {
+            LOGGER.debug("Failed to read Kafka metric {} of {}", attribute, name, exception);
+            return Double.NaN;
+        }
+    }
+
+    private static @NotNull ObjectName objectName(@NotNull String name) {
+        try {
+            return new ObjectName(name);
+        } catch (MalformedObjectNameException exception) {
+            throw new IllegalArgumentException(exception);
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package dev.emortal.minestom.core.module.messaging;
+
+import com.google.protobuf.AbstractMessage;
+import dev.emortal.api.utils.kafka.FriendlyKafkaConsumer;
+import dev.emortal.api.utils.kafka.FriendlyKafkaProducer;
+import dev.emortal.api.utils.kafka.KafkaSettings;
+import dev.emortal.api.utils.parser.MessageProtoConfig;
+import dev.emortal.api.utils.parser.ProtoParserRegistry;
+import dev.emortal.minestom.core.Environment;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+public final class KafkaTransport implements MessagingTransport {
+    // The header consumers use to find the parser for a record, as set by FriendlyKafkaProducer
+    private static final String PROTO_TYPE_HEADER = "X-Proto-Type";
+
+    private final @NotNull String bootstrapServers;
+    private final @NotNull FriendlyKafkaConsumer consumer;
+    private final @NotNull FriendlyKafkaProducer producer;
+    private final Map<ProducerProfile, KafkaProducer<String, byte[]>> profileProducers = new ConcurrentHashMap<>();
+
+    public KafkaTransport(@NotNull String bootstrapServers) {
+        this.bootstrapServers = bootstrapServers;
+
+        KafkaSettings settings = KafkaSettings.builder().bootstrapServers(bootstrapServers).build();
+        this.consumer = new FriendlyKafkaConsumer(settings);
+        this.producer = new FriendlyKafkaProducer(settings);
+    }
+
+    @Override
+    public <T extends AbstractMessage> void addListener(@NotNull Class<T> messageType, @NotNull Consumer<T> listener) {
+        this.consumer.addListener(messageType, listener);
+    }
+
+    @Override
+    public void produceAndForget(@NotNull AbstractMessage message) {
+        this.producer.produceAndForget(message);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> produce(@NotNull AbstractMessage message, @NotNull ProducerProfile profile) {
+        MessageProtoConfig<?> parser = ProtoParserRegistry.getParser(message.getClass());
+        if (parser == null) {
+            return CompletableFuture.failedFuture(
+                    new IllegalArgumentException("No parser found for message type " + message.getClass().getName()));
+        }
+
+        var record = new ProducerRecord<String, byte[]>(parser.topic(), message.toByteArray());
+        record.headers().add(PROTO_TYPE_HEADER, message.getDescriptorForType().getFullName().getBytes(StandardCharsets.UTF_8));
+
+        CompletableFuture<Void> future = new CompletableFuture<>();
+        try {
+            this.getProducer(profile).send(record, (metadata, exception) -> {
+                if (exception != null) {
+                    future.completeExceptionally(exception);
+                } else {
+                    future.complete(null);
+                }
+            });
+        } catch (RuntimeException exception) {
+            // Thrown if the record can't be queued, e.g. if the buffer is full for too long
+            future.completeExceptionally(exception);
+        }
+        return future;
+    }
+
+    private @NotNull KafkaProducer<String, byte[]> getProducer(@NotNull ProducerProfile profile) {
+        return this.profileProducers.computeIfAbsent(profile, this::createProducer);
+    }
+
+    private @NotNull KafkaProducer<String, byte[]> createProducer(@NotNull ProducerProfile profile) {
+        Properties properties = new Properties();
+        properties.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, this.bootstrapServers);
+        properties.put(ProducerConfig.CLIENT_ID_CONFIG, Environment.getHostname() + "-" + profile.name());
+        properties.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        properties.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+
+        properties.put(ProducerConfig.LINGER_MS_CONFIG, profile.lingerMs());
+        properties.put(ProducerConfig.BATCH_SIZE_CONFIG, profile.batchSize());
+        properties.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, profile.compression());
+        properties.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, profile.maxInFlight());
+        properties.put(ProducerConfig.ACKS_CONFIG, profile.acks());
+        // Idempotence requires all acks, so is only enabled when the profile waits for them
+        properties.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, profile.acks().equals("all"));
+
+        return new KafkaProducer<>(properties);
+    }
+
+    public @NotNull FriendlyKafkaProducer getProducer() {
+        return this.producer;
+    }
+
+    @Override
+    public void close() {
+        this.consumer.close();
+        this.producer.shutdown();
+        for (KafkaProducer<String, byte[]> producer : this.profileProducers.values()) {
+            producer.close();
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package dev.emortal.minestom.core.module.messaging;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Records the latency and failures of message listeners, per message type and listener.
+ */
+final class ListenerMetrics {
+
+    static <T> @NotNull Consumer<T> instrument(@NotNull Class<?> messageType, @NotNull Consumer<T> listener) {
+        String type = messageType.getSimpleName();
+        String name = listenerName(listener);
+
+        Timer timer = Timer.builder("minestom.messaging.handler")
+                .description("The time taken by a listener to handle a message")
+                .tag("type", type)
+                .tag("listener", name)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(Metrics.globalRegistry);
+        Counter errors = Counter.builder("minestom.messaging.handler.errors")
+                .description("The amount of messages a listener failed to handle")
+                .tag("type", type)
+                .tag("listener", name)
+                .register(Metrics.globalRegistry);
+
+        return message -> {
+            long start = System.nanoTime();
+            try {
+                listener.accept(message);
+            } catch (Throwable throwable) {
+                errors.increment();
+                throw throwable;
+            } finally {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        };
+    }
+
+    static @NotNull Counter filteredCounter(@NotNull Class<?> messageType) {
+        return Counter.builder("minestom.messaging.filtered")
+                .description("The amount of messages dropped by listener filters, as they didn't concern this server")
+                .tag("type", messageType.getSimpleName())
+                .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * @return the simple name of the class declaring the listener (e.g. {@code PermissionUpdateListener} for a lambda
+     * or method reference in that class)
+     */
+    private static @NotNull String listenerName(@NotNull Consumer<?> listener) {
+        String name = listener.getClass().getName();
+
+        int lambdaIndex = name.indexOf("$$Lambda");
+        if (lambdaIndex != -1) name = name.substring(0, lambdaIndex);
+
+        return name.substring(name.lastIndexOf('.') + 1);
+    }
+
+    private ListenerMetrics() {
+        throw new AssertionError("This class cannot be instantiated.");
+    }
+}
@@ -0,0 +1,40 @@
+package dev.emortal.minestom.core.module.messaging;
+
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.event.player.PlayerDisconnectEvent;
+import net.minestom.server.event.player.PlayerSpawnEvent;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The IDs of the players online on this server, in the string form used by messages.
+ * <p>
+ * Used to cheaply filter out messages about players on other servers, on the consumer thread and without parsing
+ * any UUIDs. Players are added on their first spawn and removed on disconnect.
+ */
+public final class LocalPlayerIndex {
+
+    private final Set<String> playerIds = ConcurrentHashMap.newKeySet();
+
+    LocalPlayerIndex() {
+        MinecraftServer.getGlobalEventHandler().addListener(PlayerSpawnEvent.class, event -> {
+            if (event.isFirstSpawn()) this.playerIds.add(event.getPlayer().getUuid().toString());
+        });
+        MinecraftServer.getGlobalEventHandler().addListener(PlayerDisconnectEvent.class,
+                event -> this.playerIds.remove(event.getPlayer().getUuid().toString()));
+    }
+
+    public boolean contains(@NotNull String playerId) {
+        return this.playerIds.contains(playerId);
+    }
+
+    public boolean containsAny(@NotNull Collection<String> playerIds) {
+        for (String playerId : playerIds) {
+            if (this.playerIds.contains(playerId)) return true;
+        }
+        return false;
+    }
+}
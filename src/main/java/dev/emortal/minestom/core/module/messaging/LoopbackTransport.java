@@ -0,0 +1,86 @@
+package dev.emortal.minestom.core.module.messaging;
+
+import com.google.protobuf.AbstractMessage;
+import com.google.protobuf.InvalidProtocolBufferException;
+import dev.emortal.api.utils.parser.MessageProtoConfig;
+import dev.emortal.api.utils.parser.ProtoParserRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+
+/**
+ * An in-memory transport that delivers produced messages back to this server's own listeners, without a broker.
+ * <p>
+ * Messages are serialised and parsed again before delivery, so listeners receive a copy just as they would from
+ * Kafka. Delivery happens on a single consumer thread, like the Kafka consumer's poll loop.
+ */
+public final class LoopbackTransport implements MessagingTransport {
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoopbackTransport.class);
+
+    private final Map<Class<?>, List<Consumer<AbstractMessage>>> listeners = new ConcurrentHashMap<>();
+    private final ExecutorService consumerThread = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("messaging-loopback").daemon().factory());
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends AbstractMessage> void addListener(@NotNull Class<T> messageType, @NotNull Consumer<T> listener) {
+        this.listeners.computeIfAbsent(messageType, key -> new CopyOnWriteArrayList<>()).add((Consumer<AbstractMessage>) listener);
+    }
+
+    @Override
+    public void produceAndForget(@NotNull AbstractMessage message) {
+        this.produce(message, ProducerProfile.HIGH_VOLUME);
+    }
+
+    /**
+     * The profile is ignored, and the future is completed once the message has been delivered to all listeners.
+     */
+    @Override
+    public @NotNull CompletableFuture<Void> produce(@NotNull AbstractMessage message, @NotNull ProducerProfile profile) {
+        MessageProtoConfig<?> parser = ProtoParserRegistry.getParser(message.getClass());
+        if (parser == null) {
+            return CompletableFuture.failedFuture(
+                    new IllegalArgumentException("No parser found for message type " + message.getClass().getName()));
+        }
+
+        byte[] bytes = message.toByteArray();
+        return CompletableFuture.runAsync(() -> this.deliver(message.getClass(), parser, bytes), this.consumerThread);
+    }
+
+    private void deliver(@NotNull Class<?> messageType, @NotNull MessageProtoConfig<?> parser, byte[] bytes) {
+        List<Consumer<AbstractMessage>> listeners = this.listeners.get(messageType);
+        if (listeners == null) return;
+
+        // Parsed with the registry's parser, as the Kafka consumer does
+        AbstractMessage message;
+        try {
+            message = parser.parser().parseFrom(bytes);
+        } catch (InvalidProtocolBufferException exception) {
+            LOGGER.error("Failed to parse message of type {}", messageType.getName(), exception);
+            throw new CompletionException(exception);
+        }
+
+        for (Consumer<AbstractMessage> listener : listeners) {
+            try {
+                listener.accept(message);
+            } catch (Throwable throwable) {
+                LOGGER.error("Error while handling message of type {}", messageType.getName(), throwable);
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        this.consumerThread.shutdownNow();
+    }
+}
@@ -0,0 +1,64 @@
+package dev.emortal.minestom.core.module.messaging;
+
+import com.google.protobuf.AbstractMessage;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+
+/**
+ * The listeners of a message type, registered with the transport once. Stages that must see each message exactly
+ * once, such as deduplication, run here before the message fans out to the listeners.
+ */
+final class MessageRoute<T extends AbstractMessage> implements Consumer<T> {
+    private static final Logger LOGGER = LoggerFactory.getLogger(MessageRoute.class);
+
+    private final @NotNull Class<T> messageType;
+    private final List<Consumer<T>> listeners = new CopyOnWriteArrayList<>();
+    private final @NotNull Counter duplicates;
+
+    private volatile @Nullable Dedup<T> dedup;
+
+    MessageRoute(@NotNull Class<T> messageType) {
+        this.messageType = messageType;
+        this.duplicates = Counter.builder("minestom.messaging.duplicates")
+                .description("The amount of messages dropped as they were already received recently")
+                .tag("type", messageType.getSimpleName())
+                .register(Metrics.globalRegistry);
+    }
+
+    void addListener(@NotNull Consumer<T> listener) {
+        this.listeners.add(listener);
+    }
+
+    void deduplicate(@NotNull ToLongFunction<? super T> key, @NotNull DedupWindow window) {
+        this.dedup = new Dedup<>(key, window);
+    }
+
+    @Override
+    public void accept(@NotNull T message) {
+        Dedup<T> dedup = this.dedup;
+        if (dedup != null && !dedup.window().firstSeen(dedup.key().applyAsLong(message))) {
+            this.duplicates.increment();
+            return;
+        }
+
+        for (Consumer<T> listener : this.listeners) {
+            try {
+                listener.accept(message);
+            } catch (Throwable throwable) {
+                LOGGER.error("Error while routing message of type {}", this.messageType.getName(), throwable);
+            }
+        }
+    }
+
+    private record Dedup<T>(@NotNull ToLongFunction<? super T> key, @NotNull DedupWindow window) {
+    }
+}
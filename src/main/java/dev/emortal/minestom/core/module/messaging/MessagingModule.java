@@ -1,58 +1,279 @@
 package dev.emortal.minestom.core.module.messaging;
 
 import com.google.protobuf.AbstractMessage;
-import dev.emortal.api.modules.Module;
 import dev.emortal.api.modules.annotation.ModuleData;
 import dev.emortal.api.modules.env.ModuleEnvironment;
-import dev.emortal.api.utils.kafka.FriendlyKafkaConsumer;
 import dev.emortal.api.utils.kafka.FriendlyKafkaProducer;
-import dev.emortal.api.utils.kafka.KafkaSettings;
 import dev.emortal.api.utils.parser.MessageProtoConfig;
 import dev.emortal.api.utils.parser.ProtoParserRegistry;
 import dev.emortal.minestom.core.Environment;
+import dev.emortal.minestom.core.module.MinestomModule;
 import dev.emortal.minestom.core.utils.EnvUtils;
 import dev.emortal.minestom.core.utils.PortUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
 
 /**
  * Increment this version when you make a change to this class. Sync it with Velocity's version where necessary.
  *
- * @version 1
+ * @version 2
  */
 @ModuleData(name = "messaging")
-public final class MessagingModule extends Module {
+public final class MessagingModule extends MinestomModule {
     private static final Logger LOGGER = LoggerFactory.getLogger(MessagingModule.class);
 
     private static final String KAFKA_HOST = EnvUtils.getOrDefaultUnlessProd("KAFKA_HOST", null);
     private static final String KAFKA_PORT = EnvUtils.getOrDefaultUnlessProd("KAFKA_PORT", null);
+    private static final String TRANSPORT = EnvUtils.getOrDefault("MESSAGING_TRANSPORT", "kafka");
+    private static final int MAX_QUEUED_MESSAGES = Integer.parseInt(EnvUtils.getOrDefault("MESSAGING_MAX_QUEUED_MESSAGES", "10000"));
+    private static final long DEDUP_WINDOW_SECONDS = Long.parseLong(EnvUtils.getOrDefault("MESSAGING_DEDUP_WINDOW_SECONDS", "60"));
+    private static final int DEDUP_CAPACITY = Integer.parseInt(EnvUtils.getOrDefault("MESSAGING_DEDUP_CAPACITY", "4096"));
 
-    private @Nullable FriendlyKafkaConsumer kafkaConsumer;
-    private @Nullable FriendlyKafkaProducer kafkaProducer;
+    private final Map<Class<?>, MessageRoute<?>> routes = new ConcurrentHashMap<>();
+    private final OrderedDispatcher dispatcher = new OrderedDispatcher(MAX_QUEUED_MESSAGES);
+    private @Nullable TickInbox tickInbox; // created on first use
+    private final LocalPlayerIndex localPlayers = new LocalPlayerIndex();
+
+    private @Nullable MessagingTransport transport;
+    // Profile -> message type -> timers, so recording a send doesn't allocate or look up meters in the registry
+    private final Map<ProducerProfile, Map<Class<?>, ProduceTimers>> produceTimers = new ConcurrentHashMap<>();
 
     public MessagingModule(@NotNull ModuleEnvironment environment) {
         super(environment);
+        this.registerMetrics();
+    }
+
+    /**
+     * Creates a messaging module using the given transport, instead of the one configured with
+     * {@code MESSAGING_TRANSPORT}.
+     */
+    public MessagingModule(@NotNull ModuleEnvironment environment, @NotNull MessagingTransport transport) {
+        super(environment);
+        this.transport = transport;
+        this.registerMetrics();
     }
 
+    private void registerMetrics() {
+        Gauge.builder("minestom.messaging.dispatcher.queued", this.dispatcher, OrderedDispatcher::queued)
+                .description("The amount of messages queued or being handled off the consumer thread, including the tick inbox")
+                .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * Adds a listener that is called off the consumer thread. Messages of the same type are handled in order.
+     * <p>
+     * Since version 2, listeners are no longer called on the consumer thread, one message at a time. They run on
+     * virtual threads, and listeners of different message types run concurrently with each other. Listeners sharing
+     * state across message types must be thread-safe, or use a common ordering key with
+     * {@link #addListener(Class, Function, Consumer)}. Listeners modifying game state should use
+     * {@link #addTickListener(Class, Consumer)}.
+     */
     public <T extends AbstractMessage> void addListener(@NotNull Class<T> messageType, @NotNull Consumer<T> listener) {
+        this.addListener(messageType, message -> true, message -> messageType, listener);
+    }
+
+    /**
+     * Adds a listener that is called off the consumer thread. Messages with equal ordering keys are handled
+     * in order, across all listeners. Messages with different keys may be handled concurrently.
+     *
+     * @param orderingKey a function returning the ordering key of a message (e.g. a player or ticket ID)
+     */
+    public <T extends AbstractMessage> void addListener(@NotNull Class<T> messageType, @NotNull Function<? super T, ?> orderingKey,
+                                                        @NotNull Consumer<T> listener) {
+        this.addListener(messageType, message -> true, orderingKey, listener);
+    }
+
+    /**
+     * Adds a listener that is called off the consumer thread, for messages that pass the filter.
+     *
+     * @param filter      tests whether a message concerns this server. It is called on the consumer thread, so must be
+     *                    cheap and thread-safe (e.g. a {@link #getLocalPlayers()} lookup).
+     * @param orderingKey a function returning the ordering key of a message (e.g. a player or ticket ID)
+     */
+    public <T extends AbstractMessage> void addListener(@NotNull Class<T> messageType, @NotNull Predicate<? super T> filter,
+                                                        @NotNull Function<? super T, ?> orderingKey, @NotNull Consumer<T> listener) {
         MessageProtoConfig<T> parser = ProtoParserRegistry.getParser(messageType);
         if (parser == null) {
             throw new IllegalArgumentException("No parser found for message type " + messageType.getName());
         }
 
-        if (this.kafkaConsumer != null) this.kafkaConsumer.addListener(messageType, listener);
+        if (this.transport != null) {
+            Counter filtered = ListenerMetrics.filteredCounter(messageType);
+            Consumer<T> instrumented = ListenerMetrics.instrument(messageType, listener);
+            this.getRoute(messageType, this.transport).addListener(message -> {
+                if (!filter.test(message)) {
+                    filtered.increment();
+                    return;
+                }
+                this.dispatcher.dispatch(orderingKey.apply(message), () -> instrumented.accept(message));
+            });
+        }
+    }
+
+    /**
+     * Adds a listener that is called on the tick thread, at the start of a tick. Use this for handlers that modify
+     * game state or send packets.
+     * <p>
+     * Messages of all tick listeners are handled in the order they were received, within a per-tick time budget
+     * ({@code MESSAGING_TICK_BUDGET_MS}). Messages exceeding the budget are handled on the next tick.
+     */
+    public <T extends AbstractMessage> void addTickListener(@NotNull Class<T> messageType, @NotNull Consumer<T> listener) {
+        this.addTickListener(messageType, message -> true, listener);
     }
 
+    /**
+     * Adds a listener that is called on the tick thread, for messages that pass the filter.
+     *
+     * @param filter tests whether a message concerns this server. It is called on the consumer thread, so must be
+     *               cheap and thread-safe (e.g. a {@link #getLocalPlayers()} lookup).
+     * @see #addTickListener(Class, Consumer)
+     */
+    public <T extends AbstractMessage> void addTickListener(@NotNull Class<T> messageType, @NotNull Predicate<? super T> filter,
+                                                            @NotNull Consumer<T> listener) {
+        MessageProtoConfig<T> parser = ProtoParserRegistry.getParser(messageType);
+        if (parser == null) {
+            throw new IllegalArgumentException("No parser found for message type " + messageType.getName());
+        }
+
+        if (this.transport != null) {
+            TickInbox inbox = this.getTickInbox();
+            Counter filtered = ListenerMetrics.filteredCounter(messageType);
+            Consumer<T> instrumented = ListenerMetrics.instrument(messageType, listener);
+            this.getRoute(messageType, this.transport).addListener(message -> {
+                if (!filter.test(message)) {
+                    filtered.increment();
+                    return;
+                }
+                inbox.submit(() -> instrumented.accept(message));
+            });
+        }
+    }
+
+    /**
+     * Runs a task off the consumer thread, in order with the messages of listeners using the same ordering key. Use this
+     * for work that must not interleave with those listeners, such as applying state fetched from a service.
+     *
+     * @param orderingKey the ordering key shared with the listeners
+     */
+    public void dispatch(@NotNull Object orderingKey, @NotNull Runnable task) {
+        this.dispatcher.dispatch(orderingKey, task);
+    }
+
+    /**
+     * Drops messages of the given type that have the same key as a message received within the dedup window
+     * ({@code MESSAGING_DEDUP_WINDOW_SECONDS}), before any listener sees them. Use this for messages that are
+     * expensive to handle again when Kafka redelivers them.
+     * <p>
+     * The key must identify a single message, not its content. Messages that legitimately repeat with the same content
+     * (e.g. a role set back to a previous state) would otherwise be dropped.
+     *
+     * @param key a function returning a 64-bit key identifying a message, such as a hash of a unique ID it carries
+     */
+    public <T extends AbstractMessage> void deduplicate(@NotNull Class<T> messageType, @NotNull ToLongFunction<? super T> key) {
+        if (this.transport == null) return;
+
+        DedupWindow window = new DedupWindow(DEDUP_CAPACITY, TimeUnit.SECONDS.toNanos(DEDUP_WINDOW_SECONDS));
+        this.getRoute(messageType, this.transport).deduplicate(key, window);
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T extends AbstractMessage> @NotNull MessageRoute<T> getRoute(@NotNull Class<T> messageType, @NotNull MessagingTransport transport) {
+        return (MessageRoute<T>) this.routes.computeIfAbsent(messageType, type -> {
+            MessageRoute<T> route = new MessageRoute<>(messageType);
+            transport.addListener(messageType, route);
+            return route;
+        });
+    }
+
+    /**
+     * @return the players online on this server, for use in listener filters
+     */
+    public @NotNull LocalPlayerIndex getLocalPlayers() {
+        return this.localPlayers;
+    }
+
+    private synchronized @NotNull TickInbox getTickInbox() {
+        if (this.tickInbox == null) {
+            this.tickInbox = new TickInbox(this.dispatcher);
+            Gauge.builder("minestom.messaging.tick_inbox.queued", this.tickInbox, TickInbox::size)
+                    .description("The amount of messages waiting to be handled on the tick thread")
+                    .register(Metrics.globalRegistry);
+        }
+        return this.tickInbox;
+    }
+
+    public void produceAndForget(@NotNull AbstractMessage message) {
+        if (this.transport != null) this.transport.produceAndForget(message);
+    }
+
+    /**
+     * Sends a message using the producer of the given profile, recording its send latency and failures.
+     *
+     * @return a future completed once the message has been sent, as defined by the profile's acknowledgements,
+     * or completed exceptionally if sending failed
+     */
+    public @NotNull CompletableFuture<Void> produce(@NotNull AbstractMessage message, @NotNull ProducerProfile profile) {
+        if (this.transport == null) {
+            return CompletableFuture.failedFuture(new IllegalStateException("Messaging is not available"));
+        }
+
+        ProduceTimers timers = this.getProduceTimers(profile, message.getClass());
+        long start = System.nanoTime();
+        return this.transport.produce(message, profile).whenComplete((result, exception) -> {
+            Timer timer = exception == null ? timers.success() : timers.failure();
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        });
+    }
+
+    private @NotNull ProduceTimers getProduceTimers(@NotNull ProducerProfile profile, @NotNull Class<?> messageType) {
+        return this.produceTimers.computeIfAbsent(profile, key -> new ConcurrentHashMap<>())
+                .computeIfAbsent(messageType, key -> new ProduceTimers(
+                        produceTimer(profile, messageType, "success"),
+                        produceTimer(profile, messageType, "failure")));
+    }
+
+    private static @NotNull Timer produceTimer(@NotNull ProducerProfile profile, @NotNull Class<?> messageType,
+                                               @NotNull String outcome) {
+        return Timer.builder("minestom.messaging.produce")
+                .description("The time taken for a message to be sent")
+                .tag("profile", profile.name())
+                .tag("type", messageType.getSimpleName())
+                .tag("outcome", outcome)
+                .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * @return the Kafka producer, or null if messages are not sent over Kafka
+     */
     public @Nullable FriendlyKafkaProducer getKafkaProducer() {
-        return this.kafkaProducer;
+        return this.transport instanceof KafkaTransport kafkaTransport ? kafkaTransport.getProducer() : null;
     }
 
     @Override
-    public boolean onLoad() {
+    protected boolean load() {
+        if (this.transport != null) return true;
+
+        if (TRANSPORT.equalsIgnoreCase("loopback")) {
+            LOGGER.info("Using loopback messaging transport, messages will not leave this server");
+            this.transport = new LoopbackTransport();
+            return true;
+        }
+
         if (KAFKA_HOST == null || KAFKA_PORT == null) {
             LOGGER.warn("Kafka is not available, disabling Kafka consumer and producer");
             return false;
@@ -63,15 +284,19 @@ public final class MessagingModule extends Module {
             return false;
         }
 
-        KafkaSettings settings = KafkaSettings.builder().bootstrapServers(KAFKA_HOST + ":" + KAFKA_PORT).build();
-        this.kafkaConsumer = new FriendlyKafkaConsumer(settings);
-        this.kafkaProducer = new FriendlyKafkaProducer(settings);
+        this.transport = new KafkaTransport(KAFKA_HOST + ":" + KAFKA_PORT);
         return true;
     }
 
     @Override
     public void onUnload() {
-        if (this.kafkaConsumer != null) this.kafkaConsumer.close();
-        if (this.kafkaProducer != null) this.kafkaProducer.shutdown();
+        if (this.transport != null) this.transport.close();
+        synchronized (this) {
+            if (this.tickInbox != null) this.tickInbox.shutdown();
+        }
+        this.dispatcher.shutdown();
+    }
+
+    private record ProduceTimers(@NotNull Timer success, @NotNull Timer failure) {
     }
 }
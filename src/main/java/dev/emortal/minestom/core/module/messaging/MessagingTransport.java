@@ -0,0 +1,27 @@
+package dev.emortal.minestom.core.module.messaging;
+
+import com.google.protobuf.AbstractMessage;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Consumer;
+
+/**
+ * The transport messages are consumed from and produced to.
+ * <p>
+ * Listeners are called on a single consumer thread, in the order messages were received.
+ */
+public interface MessagingTransport {
+
+    <T extends AbstractMessage> void addListener(@NotNull Class<T> messageType, @NotNull Consumer<T> listener);
+
+    void produceAndForget(@NotNull AbstractMessage message);
+
+    /**
+     * @return a future completed once the message has been sent, as defined by the profile's acknowledgements.
+     * Failures, including messages that can't be sent at all, complete the future exceptionally and are never thrown.
+     */
+    @NotNull CompletableFuture<Void> produce(@NotNull AbstractMessage message, @NotNull ProducerProfile profile);
+
+    void close();
+}
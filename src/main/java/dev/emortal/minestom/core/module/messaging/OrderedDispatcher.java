@@ -0,0 +1,135 @@
+package dev.emortal.minestom.core.module.messaging;
+
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs tasks on virtual threads, in submission order per key.
+ * <p>
+ * Each key has a lane that runs its tasks one at a time, and lanes run independently of each other, so a slow task
+ * only delays tasks sharing its key. The amount of queued tasks across all lanes is bounded. When full,
+ * {@link #dispatch(Object, Runnable)} blocks, applying backpressure to the caller (the Kafka poll loop).
+ * <p>
+ * Once shut down, queued tasks are still run, for a bounded time, and new tasks are dropped.
+ */
+final class OrderedDispatcher {
+    private static final Logger LOGGER = LoggerFactory.getLogger(OrderedDispatcher.class);
+
+    private static final long SHUTDOWN_TIMEOUT_SECONDS = 5;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final int maxQueued;
+    private final Semaphore capacity;
+    // A lane is only present while it has tasks, and is only accessed inside compute calls for its key
+    private final Map<Object, Lane> lanes = new ConcurrentHashMap<>();
+    private volatile boolean closed;
+
+    OrderedDispatcher(int maxQueued) {
+        this.maxQueued = maxQueued;
+        this.capacity = new Semaphore(maxQueued);
+    }
+
+    void dispatch(@NotNull Object key, @NotNull Runnable task) {
+        if (this.closed) {
+            LOGGER.debug("Dropping task dispatched after shutdown (key: {})", key);
+            return;
+        }
+
+        this.capacity.acquireUninterruptibly();
+        try {
+            this.lanes.compute(key, (k, lane) -> {
+                if (lane == null) {
+                    lane = new Lane(k);
+                    lane.tasks.add(task);
+                    this.executor.execute(lane);
+                } else {
+                    lane.tasks.add(task);
+                }
+                return lane;
+            });
+        } catch (RejectedExecutionException exception) {
+            // Shut down since the check above. The lane wasn't added, as compute doesn't map a key if its function throws.
+            this.capacity.release();
+            LOGGER.debug("Dropping task dispatched after shutdown (key: {})", key);
+        }
+    }
+
+    /**
+     * Takes capacity for a task queued outside the dispatcher (e.g. in the {@link TickInbox}), blocking while full, so
+     * both are bounded together. Must be given back with {@link #release()} once the task has run.
+     */
+    void acquire() {
+        this.capacity.acquireUninterruptibly();
+    }
+
+    void release() {
+        this.capacity.release();
+    }
+
+    /**
+     * @return the amount of tasks queued or running, including those queued outside the dispatcher
+     */
+    int queued() {
+        return this.maxQueued - this.capacity.availablePermits();
+    }
+
+    void shutdown() {
+        this.closed = true;
+        this.executor.shutdown();
+
+        try {
+            if (!this.executor.awaitTermination(SHUTDOWN_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                LOGGER.warn("Timed out waiting for {} queued tasks to finish, interrupting them", this.queued());
+                this.executor.shutdownNow();
+            }
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            this.executor.shutdownNow();
+        }
+    }
+
+    private final class Lane implements Runnable {
+
+        private final @NotNull Object key;
+        private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+        private Runnable next;
+
+        Lane(@NotNull Object key) {
+            this.key = key;
+        }
+
+        @Override
+        public void run() {
+            while (true) {
+                // Removes the lane once empty, atomically with dispatch adding to it
+                lanes.compute(this.key, (k, lane) -> {
+                    this.next = this.tasks.poll();
+                    return this.next == null ? null : lane;
+                });
+
+                Runnable task = this.next;
+                if (task == null) return;
+
+                try {
+                    task.run();
+                } catch (Throwable throwable) {
+                    LOGGER.error("Error while handling message (key: {})", this.key, throwable);
+                } finally {
+                    capacity.release();
+                }
+            }
+        }
+    }
+}
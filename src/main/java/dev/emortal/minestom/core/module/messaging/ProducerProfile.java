@@ -0,0 +1,28 @@
+package dev.emortal.minestom.core.module.messaging;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Producer settings for a kind of sender. Each profile gets its own producer, so batching for one use case doesn't
+ * delay another.
+ *
+ * @param name        the name of the profile, used in metrics and as part of the client ID
+ * @param lingerMs    how long to wait for more records to fill a batch before sending it
+ * @param batchSize   the maximum size of a batch per partition, in bytes
+ * @param compression the compression codec for batches ({@code none}, {@code gzip}, {@code snappy}, {@code lz4} or {@code zstd})
+ * @param maxInFlight the maximum amount of unacknowledged requests per connection
+ * @param acks        the acknowledgements required before a send is complete ({@code 0}, {@code 1} or {@code all})
+ */
+public record ProducerProfile(@NotNull String name, int lingerMs, int batchSize, @NotNull String compression,
+                              int maxInFlight, @NotNull String acks) {
+
+    /**
+     * For frequent messages where an occasional loss is acceptable, such as chat. Waits briefly to batch and compresses.
+     */
+    public static final @NotNull ProducerProfile HIGH_VOLUME = new ProducerProfile("high_volume", 20, 64 * 1024, "lz4", 5, "1");
+
+    /**
+     * For messages that must not be lost or reordered. Sends immediately and waits for all replicas.
+     */
+    public static final @NotNull ProducerProfile CRITICAL = new ProducerProfile("critical", 0, 16 * 1024, "none", 1, "all");
+}
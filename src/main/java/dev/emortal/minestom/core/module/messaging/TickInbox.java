@@ -0,0 +1,76 @@
+package dev.emortal.minestom.core.module.messaging;
+
+import dev.emortal.minestom.core.utils.EnvUtils;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.timer.ExecutionType;
+import net.minestom.server.timer.Task;
+import net.minestom.server.timer.TaskSchedule;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A lock-free inbox of message handlers, drained in order at the start of every tick.
+ * <p>
+ * Draining stops once the tick budget is used up, leaving the remaining messages for the next tick, so a burst of
+ * messages has a bounded cost per tick. At least one message is handled per tick.
+ * <p>
+ * Queued messages take capacity from the {@link OrderedDispatcher}, so when the inbox falls behind,
+ * {@link #submit(Runnable)} blocks and applies backpressure to the consumer.
+ */
+final class TickInbox {
+    private static final Logger LOGGER = LoggerFactory.getLogger(TickInbox.class);
+
+    private static final long TICK_BUDGET_NANOS = TimeUnit.MILLISECONDS.toNanos(
+            Long.parseLong(EnvUtils.getOrDefault("MESSAGING_TICK_BUDGET_MS", "5")));
+
+    private final @NotNull OrderedDispatcher dispatcher;
+    private final Queue<Runnable> inbox = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger size = new AtomicInteger();
+    private final Task drainTask;
+
+    TickInbox(@NotNull OrderedDispatcher dispatcher) {
+        this.dispatcher = dispatcher;
+        this.drainTask = MinecraftServer.getSchedulerManager().buildTask(this::drain)
+                .executionType(ExecutionType.TICK_START)
+                .repeat(TaskSchedule.nextTick())
+                .schedule();
+    }
+
+    void submit(@NotNull Runnable task) {
+        this.dispatcher.acquire();
+        this.size.incrementAndGet();
+        this.inbox.add(task);
+    }
+
+    int size() {
+        return this.size.get();
+    }
+
+    private void drain() {
+        long deadline = System.nanoTime() + TICK_BUDGET_NANOS;
+
+        Runnable task;
+        while ((task = this.inbox.poll()) != null) {
+            try {
+                task.run();
+            } catch (Throwable throwable) {
+                LOGGER.error("Error while handling message", throwable);
+            } finally {
+                this.size.decrementAndGet();
+                this.dispatcher.release();
+            }
+
+            if (System.nanoTime() >= deadline) return;
+        }
+    }
+
+    void shutdown() {
+        this.drainTask.cancel();
+    }
+}
@@ -5,6 +5,8 @@ import dev.emortal.api.modules.annotation.ModuleData;
 import dev.emortal.api.modules.env.ModuleEnvironment;
 import dev.emortal.minestom.core.Environment;
 import dev.emortal.minestom.core.module.MinestomModule;
+import dev.emortal.minestom.core.module.messaging.KafkaConsumerMetrics;
+import dev.emortal.minestom.core.module.permissions.PermissionCheckMetrics;
 import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.binder.jvm.ClassLoaderMetrics;
 import io.micrometer.core.instrument.binder.jvm.JvmGcMetrics;
@@ -37,7 +39,7 @@ public final class MonitoringModule extends MinestomModule {
     }
 
     @Override
-    public boolean onLoad() {
+    protected boolean load() {
         if (!Environment.isProduction()) {
             LOGGER.warn("Monitoring is disabled.");
             return false;
@@ -66,6 +68,8 @@ public final class MonitoringModule extends MinestomModule {
         // Custom
         new MinestomMetrics(this.eventNode).bindTo(registry);
         new MinestomPacketMetrics(this.eventNode).bindTo(registry);
+        new KafkaConsumerMetrics().bindTo(registry);
+        if (PermissionCheckMetrics.ENABLED) new PermissionCheckMetrics().bindTo(registry);
 
         // Add the registry globally so that it can be used by other modules without having to pass it around
         Metrics.addRegistry(registry);
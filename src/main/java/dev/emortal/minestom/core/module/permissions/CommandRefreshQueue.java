@@ -0,0 +1,63 @@
+package dev.emortal.minestom.core.module.permissions;
+
+import dev.emortal.minestom.core.utils.EnvUtils;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.entity.Player;
+import net.minestom.server.timer.TaskSchedule;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Coalesces command tree refreshes after permission changes.
+ * <p>
+ * Players are marked dirty, with repeated marks collapsing into one refresh, and a bounded number of refreshes is
+ * drained every tick. This spreads out the cost of a role update that affects hundreds of players.
+ */
+final class CommandRefreshQueue {
+    private static final int REFRESHES_PER_TICK = Integer.parseInt(EnvUtils.getOrDefault("PERMISSION_REFRESHES_PER_TICK", "25"));
+
+    private final Set<UUID> dirty = ConcurrentHashMap.newKeySet();
+    private final Queue<UUID> queue = new ConcurrentLinkedQueue<>();
+
+    private final Counter drainedCounter;
+
+    CommandRefreshQueue() {
+        Gauge.builder("minestom.permissions.command_refresh.pending", this.dirty, Set::size)
+                .description("The amount of players waiting for their commands to be refreshed")
+                .register(Metrics.globalRegistry);
+
+        this.drainedCounter = Counter.builder("minestom.permissions.command_refresh.drained")
+                .description("The amount of command refreshes sent after permission changes")
+                .register(Metrics.globalRegistry);
+
+        MinecraftServer.getSchedulerManager().buildTask(this::drain).repeat(TaskSchedule.nextTick()).schedule();
+    }
+
+    void markDirty(@NotNull UUID playerId) {
+        if (this.dirty.add(playerId)) this.queue.add(playerId);
+    }
+
+    private void drain() {
+        for (int i = 0; i < REFRESHES_PER_TICK; i++) {
+            UUID playerId = this.queue.poll();
+            if (playerId == null) return;
+
+            // Removed before refreshing so that a change arriving during the refresh marks the player again
+            this.dirty.remove(playerId);
+
+            Player player = MinecraftServer.getConnectionManager().getOnlinePlayerByUuid(playerId);
+            if (player == null) continue; // Disconnected while waiting
+
+            player.refreshCommands();
+            this.drainedCounter.increment();
+        }
+    }
+}
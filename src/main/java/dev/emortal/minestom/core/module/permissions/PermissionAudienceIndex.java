@@ -0,0 +1,77 @@
+package dev.emortal.minestom.core.module.permissions;
+
+import net.kyori.adventure.audience.Audience;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.entity.Player;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tracks which online players hold each registered permission node, so targeted broadcasts (e.g. to staff) don't
+ * need to check every online player.
+ * <p>
+ * Membership is updated by the {@link PermissionCache} whenever it recomputes a player's permissions.
+ */
+public final class PermissionAudienceIndex {
+
+    private final Map<String, Set<Player>> audiences = new ConcurrentHashMap<>();
+
+    /**
+     * Starts tracking a permission node. Registering a node that is already tracked does nothing.
+     *
+     * @param node the node to track
+     */
+    public void register(@NotNull String node) {
+        this.audiences.computeIfAbsent(node, key -> {
+            Set<Player> players = ConcurrentHashMap.newKeySet();
+            for (Player player : MinecraftServer.getConnectionManager().getOnlinePlayers()) {
+                if (player instanceof PermissionHolder permHolder && permHolder.hasPermission(key)) players.add(player);
+            }
+            return players;
+        });
+    }
+
+    /**
+     * @param node a registered permission node
+     * @return a live view of the online players holding the node
+     * @throws IllegalArgumentException if the node isn't registered
+     */
+    public @NotNull Set<Player> getPlayers(@NotNull String node) {
+        Set<Player> players = this.audiences.get(node);
+        if (players == null) throw new IllegalArgumentException("Permission node " + node + " is not registered");
+
+        return Collections.unmodifiableSet(players);
+    }
+
+    /**
+     * @param node a registered permission node
+     * @return an audience of the online players holding the node
+     * @throws IllegalArgumentException if the node isn't registered
+     */
+    public @NotNull Audience getAudience(@NotNull String node) {
+        return Audience.audience(this.getPlayers(node));
+    }
+
+    void update(@NotNull Player player) {
+        if (!(player instanceof PermissionHolder permHolder)) return;
+
+        PermissionMatcher matcher = permHolder.getPermissionMatcher();
+        for (Map.Entry<String, Set<Player>> entry : this.audiences.entrySet()) {
+            if (matcher.matches(entry.getKey(), true)) {
+                entry.getValue().add(player);
+            } else {
+                entry.getValue().remove(player);
+            }
+        }
+    }
+
+    void remove(@NotNull Player player) {
+        for (Set<Player> players : this.audiences.values()) {
+            players.remove(player);
+        }
+    }
+}
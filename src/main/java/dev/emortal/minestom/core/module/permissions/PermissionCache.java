@@ -1,21 +1,25 @@
 package dev.emortal.minestom.core.module.permissions;
 
 import com.google.common.collect.Sets;
-import dev.emortal.api.grpc.permission.PermissionProto.PlayerRolesResponse;
 import dev.emortal.api.model.permission.PermissionNode;
 import dev.emortal.api.model.permission.Role;
 import dev.emortal.api.service.permission.PermissionService;
+import dev.emortal.minestom.core.utils.MiniMessageTemplates;
 import io.grpc.StatusRuntimeException;
+import net.kyori.adventure.text.Component;
 import net.minestom.server.MinecraftServer;
 import net.minestom.server.entity.Player;
 import net.minestom.server.event.Event;
 import net.minestom.server.event.EventNode;
 import net.minestom.server.event.player.AsyncPlayerConfigurationEvent;
+import net.minestom.server.event.player.AsyncPlayerPreLoginEvent;
 import net.minestom.server.event.player.PlayerDisconnectEvent;
+import net.minestom.server.event.player.PlayerSpawnEvent;
 import org.jetbrains.annotations.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashSet;
 import java.util.LinkedHashMap;
@@ -24,27 +28,82 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.stream.Collectors;
 
 public final class PermissionCache {
     private static final Logger LOGGER = LoggerFactory.getLogger(PermissionCache.class);
 
+    static final long NO_SEQUENCE = -1;
+
     private final @NotNull PermissionService permissionService;
+    private final @NotNull PermissionLoader permissionLoader;
+    private final @NotNull RoleCatalogStore roleCatalogStore = new RoleCatalogStore();
+    private final @NotNull PermissionReconciler reconciler;
+    // Runs fetched state in order with the permission update messages
+    private final @NotNull Executor updateExecutor;
 
     private final Map<String, CachedRole> roleCache = Collections.synchronizedMap(new LinkedHashMap<>());
     private final Map<UUID, User> userCache = new ConcurrentHashMap<>();
+    // The IDs of the cached users in the string form used by messages, so messages can be filtered without parsing them
+    private final Set<String> cachedUserIds = ConcurrentHashMap.newKeySet();
+    // Role ID -> IDs of the cached users holding that role, so role updates only touch the affected users
+    private final Map<String, Set<UUID>> roleMembers = new ConcurrentHashMap<>();
+    // Keyed by the sorted role IDs, so users with the same roles share a snapshot
+    private final Map<List<String>, PermissionSnapshot> snapshotCache = new ConcurrentHashMap<>();
+    // Held while building a snapshot and while changing a role, so a snapshot built from a role's old permissions
+    // can't be cached after that role's snapshots are invalidated
+    private final Object snapshotLock = new Object();
+    private final Map<UUID, DisplayRole> displayRoles = new ConcurrentHashMap<>();
+
+    // Taken by every change to the role catalog or a user's roles, so a fetch can tell if it was overtaken by an update
+    private final AtomicLong updateSequence = new AtomicLong();
+    private volatile long catalogSequence;
+    private final Map<UUID, Long> userSequences = new ConcurrentHashMap<>();
+
+    private final CommandRefreshQueue commandRefreshQueue = new CommandRefreshQueue();
+    private final PermissionAudienceIndex audienceIndex = new PermissionAudienceIndex();
 
-    public PermissionCache(@NotNull PermissionService permissionService, @NotNull EventNode<Event> eventNode) {
+    /**
+     * @param updateExecutor runs the application of state fetched from the permission service, in order with the
+     *                       handling of permission update messages
+     */
+    public PermissionCache(@NotNull PermissionService permissionService, @NotNull EventNode<Event> eventNode,
+                           @NotNull Executor updateExecutor) {
         this.permissionService = permissionService;
+        this.permissionLoader = new PermissionLoader(permissionService);
+        this.updateExecutor = updateExecutor;
 
+        eventNode.addListener(AsyncPlayerPreLoginEvent.class, this::onPreLogin);
         eventNode.addListener(PlayerDisconnectEvent.class, this::onDisconnect);
         eventNode.addListener(AsyncPlayerConfigurationEvent.class, this::onLogin);
+        eventNode.addListener(PlayerSpawnEvent.class, this::onSpawn);
 
         this.loadRoles();
+        this.reconciler = new PermissionReconciler(permissionService, this, updateExecutor);
     }
 
+    /**
+     * Loads the last persisted role catalog immediately, then reconciles it with the permission service
+     * in the background.
+     */
     private void loadRoles() {
+        for (Role role : this.roleCatalogStore.load()) {
+            this.addRole(role);
+        }
+
+        Thread.ofVirtual().name("role-catalog-reconcile").start(this::reconcileRoles);
+    }
+
+    private void reconcileRoles() {
+        long sequence = this.catalogSequence;
+
         List<Role> roles;
         try {
             roles = this.permissionService.getAllRoles();
@@ -53,41 +112,84 @@ public final class PermissionCache {
             return;
         }
 
+        // An update message handled since the fetch started may be newer than the fetched catalog, and would be reverted
+        this.updateExecutor.execute(() -> {
+            if (this.catalogSequence == sequence) this.applyRoleCatalog(roles);
+        });
+    }
+
+    /**
+     * Brings the cached roles in line with the given catalog, only applying roles that changed.
+     *
+     * @param roles the full role catalog
+     * @return true if any role changed
+     */
+    boolean applyRoleCatalog(@NotNull List<Role> roles) {
+        boolean changed = false;
+
+        Set<String> roleIds = new HashSet<>();
         for (Role role : roles) {
-            this.addRole(role);
+            roleIds.add(role.getId());
+            // Only fan out roles that changed since the persisted catalog
+            if (!role.equals(this.roleCatalogStore.get(role.getId()))) {
+                this.addRole(role);
+                changed = true;
+            }
+        }
+
+        for (Role role : List.copyOf(this.roleCatalogStore.getAll())) {
+            if (!roleIds.contains(role.getId())) {
+                this.removeRole(role.getId());
+                changed = true;
+            }
         }
+        return changed;
     }
 
     /**
-     * This method is blocking
+     * This method blocks until the player's roles are loaded, or {@link PermissionLoader#DEADLINE} passes.
+     * If the deadline passes, the player is given no roles until the load completes, at which point the roles are
+     * applied to the player directly, as they are usually still configuring and not yet online.
      *
      * @param player the player to load
      */
     private void loadUser(@NotNull Player player) {
         PermissionHolder permHolder = (PermissionHolder) player;
 
-        PlayerRolesResponse response;
+        CompletableFuture<List<String>> future = this.permissionLoader.take(player.getUuid());
+        List<String> loadedRoleIds;
+        boolean timedOut = false;
         try {
-            response = this.permissionService.getPlayerRoles(player.getUuid());
-        } catch (StatusRuntimeException exception) {
-            LOGGER.error("Failed to get roles for '{}'", player.getUsername(), exception);
-            return;
+            loadedRoleIds = future.get(PermissionLoader.DEADLINE.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException exception) {
+            LOGGER.warn("Timed out loading roles for '{}', applying them once loaded", player.getUsername());
+            loadedRoleIds = List.of();
+            timedOut = true;
+        } catch (ExecutionException exception) {
+            LOGGER.error("Failed to get roles for '{}'", player.getUsername(), exception.getCause());
+            loadedRoleIds = List.of();
+        } catch (InterruptedException exception) {
+            Thread.currentThread().interrupt();
+            loadedRoleIds = List.of();
         }
 
-        Set<String> roleIds = Sets.newConcurrentHashSet(response.getRoleIdsList());
+        Set<String> roleIds = Sets.newConcurrentHashSet(loadedRoleIds);
         User user = new User(player.getUuid(), roleIds);
         this.userCache.put(player.getUuid(), user);
-
-        Set<Permission> permissions = new HashSet<>();
+        this.cachedUserIds.add(player.getUuid().toString());
+        this.markUpdated(user.id());
         for (String roleId : roleIds) {
-            CachedRole role = this.roleCache.get(roleId);
-            if (role == null) continue;
-
-            permissions.addAll(role.permissions());
+            this.addRoleMember(roleId, user.id());
         }
 
-        permHolder.getPermissions().clear();
-        permHolder.getPermissions().addAll(permissions);
+        permHolder.setPermissions(this.getSnapshot(roleIds));
+        this.audienceIndex.update(player);
+        this.updateDisplayRole(player, roleIds);
+
+        // Only registered once the user is cached, so there is always a user to apply the late roles to
+        if (timedOut) {
+            future.thenAccept(lateRoleIds -> this.updateExecutor.execute(() -> this.setUserRoles(player, lateRoleIds)));
+        }
     }
 
     private void updateUserPermissions(@NotNull User user) {
@@ -96,17 +198,56 @@ public final class PermissionCache {
             LOGGER.error("Couldn't find player with id {}", user.id());
             return;
         }
+
+        this.applyPermissions(player, user);
+    }
+
+    private void applyPermissions(@NotNull Player player, @NotNull User user) {
         PermissionHolder permHolder = (PermissionHolder) player;
 
-        Set<Permission> permissions = this.calculatePerms(user.roleIds());
-        this.userCache.put(user.id(), user);
-        permHolder.getPermissions().clear();
-        permHolder.getPermissions().addAll(permissions);
+        permHolder.setPermissions(this.getSnapshot(user.roleIds()));
+        this.audienceIndex.update(player);
+        this.updateDisplayRole(player, user.roleIds());
+
+        this.commandRefreshQueue.markDirty(user.id());
+    }
+
+    private void updateDisplayRole(@NotNull Player player, @NotNull Set<String> roleIds) {
+        CachedRole highest = null;
+        for (String roleId : roleIds) {
+            CachedRole role = this.roleCache.get(roleId);
+            if (role != null && (highest == null || role.compareTo(highest) > 0)) highest = role;
+        }
+
+        if (highest == null) {
+            this.displayRoles.remove(player.getUuid());
+            return;
+        }
+
+        DisplayRole current = this.displayRoles.get(player.getUuid());
+        if (current != null && current.role().equals(highest)) return; // Nothing to re-render
+
+        Component displayName = MiniMessageTemplates.get(highest.displayName(), "username").render(player.getUsername());
+        this.displayRoles.put(player.getUuid(), new DisplayRole(highest, displayName));
+    }
+
+    /**
+     * @param roleIds the role IDs to get the effective permissions for
+     * @return the shared snapshot for the combination of roles
+     */
+    public @NotNull PermissionSnapshot getSnapshot(@NotNull Set<String> roleIds) {
+        if (roleIds.isEmpty()) return PermissionSnapshot.EMPTY;
+
+        List<String> key = roleIds.stream().sorted().toList();
+        PermissionSnapshot snapshot = this.snapshotCache.get(key);
+        if (snapshot != null) return snapshot;
 
-        player.refreshCommands();
+        synchronized (this.snapshotLock) {
+            return this.snapshotCache.computeIfAbsent(key, this::calculateSnapshot);
+        }
     }
 
-    private @NotNull Set<Permission> calculatePerms(@NotNull Set<String> roleIds) {
+    private @NotNull PermissionSnapshot calculateSnapshot(@NotNull List<String> roleIds) {
         Set<Permission> permissions = new HashSet<>();
         for (String roleId : roleIds) {
             CachedRole role = this.roleCache.get(roleId);
@@ -117,7 +258,31 @@ public final class PermissionCache {
 
             permissions.addAll(role.permissions());
         }
-        return permissions;
+        return PermissionSnapshot.of(permissions);
+    }
+
+    /**
+     * Drops the snapshots of every role combination containing the given role, so they are rebuilt once
+     * on next use rather than once per user.
+     */
+    private void invalidateSnapshots(@NotNull String roleId) {
+        this.snapshotCache.keySet().removeIf(roleIds -> roleIds.contains(roleId));
+    }
+
+    private void addRoleMember(@NotNull String roleId, @NotNull UUID userId) {
+        this.roleMembers.computeIfAbsent(roleId, id -> ConcurrentHashMap.newKeySet()).add(userId);
+    }
+
+    private void removeRoleMember(@NotNull String roleId, @NotNull UUID userId) {
+        this.roleMembers.computeIfPresent(roleId, (id, members) -> {
+            members.remove(userId);
+            return members.isEmpty() ? null : members;
+        });
+    }
+
+    private @NotNull List<UUID> getRoleMembers(@NotNull String roleId) {
+        Set<UUID> members = this.roleMembers.get(roleId);
+        return members == null ? List.of() : List.copyOf(members);
     }
 
     public Optional<CachedRole> getRole(@NotNull String id) {
@@ -128,6 +293,50 @@ public final class PermissionCache {
         return Optional.ofNullable(this.userCache.get(id));
     }
 
+    /**
+     * Doesn't parse the ID, so is cheap enough to filter messages with on the consumer thread.
+     *
+     * @param id the ID of a player, as a string
+     * @return true if the player's roles are cached, which happens from configuration until they disconnect
+     */
+    public boolean isUserCached(@NotNull String id) {
+        return this.cachedUserIds.contains(id);
+    }
+
+    /**
+     * @param id the ID of an online player
+     * @return the player's highest priority role and its rendered display name, if they have any roles
+     */
+    public Optional<DisplayRole> getDisplayRole(@NotNull UUID id) {
+        return Optional.ofNullable(this.displayRoles.get(id));
+    }
+
+    public @NotNull PermissionAudienceIndex getAudienceIndex() {
+        return this.audienceIndex;
+    }
+
+    @NotNull Set<UUID> getUserIds() {
+        return this.userCache.keySet();
+    }
+
+    /**
+     * @return the sequence number of the last change to the role catalog
+     */
+    long getCatalogSequence() {
+        return this.catalogSequence;
+    }
+
+    /**
+     * @return the sequence number of the last change to the user's roles, or {@link #NO_SEQUENCE} if they aren't cached
+     */
+    long getUserSequence(@NotNull UUID userId) {
+        return this.userSequences.getOrDefault(userId, NO_SEQUENCE);
+    }
+
+    private void markUpdated(@NotNull UUID userId) {
+        this.userSequences.put(userId, this.updateSequence.incrementAndGet());
+    }
+
     /**
      * Adds a role to the cache OR overrides one that already exists.
      *
@@ -135,21 +344,64 @@ public final class PermissionCache {
      */
     void addRole(@NotNull Role roleResponse) {
         CachedRole role = CachedRole.fromRole(roleResponse);
-        this.roleCache.put(roleResponse.getId(), role);
+        this.catalogSequence = this.updateSequence.incrementAndGet();
+        this.roleCatalogStore.put(roleResponse);
+        synchronized (this.snapshotLock) {
+            this.roleCache.put(roleResponse.getId(), role);
+            this.invalidateSnapshots(roleResponse.getId());
+        }
 
-        for (User user : this.userCache.values()) {
-            if (user.roleIds().contains(roleResponse.getId())) {
-                this.updateUserPermissions(user);
-            }
+        for (UUID userId : this.getRoleMembers(roleResponse.getId())) {
+            User user = this.userCache.get(userId);
+            if (user != null) this.updateUserPermissions(user);
         }
     }
 
     void removeRole(@NotNull String id) {
-        for (User user : this.userCache.values()) {
-            if (user.roleIds().contains(id)) this.removeRoleFromUser(user.id(), id);
+        this.catalogSequence = this.updateSequence.incrementAndGet();
+        for (UUID userId : this.getRoleMembers(id)) {
+            this.removeRoleFromUser(userId, id);
+        }
+
+        this.roleCatalogStore.remove(id);
+        synchronized (this.snapshotLock) {
+            this.roleCache.remove(id);
+            this.invalidateSnapshots(id);
         }
+    }
+
+    /**
+     * Replaces all the roles of a cached user.
+     */
+    void setUserRoles(@NotNull UUID userId, @NotNull Collection<String> roleIds) {
+        User user = this.userCache.get(userId);
+        if (user == null) return; // Disconnected in the meantime
+
+        this.replaceUserRoles(user, roleIds);
+        this.updateUserPermissions(user);
+    }
+
+    /**
+     * Replaces all the roles of a cached user, applying them to the given player even if they are not online yet.
+     */
+    private void setUserRoles(@NotNull Player player, @NotNull Collection<String> roleIds) {
+        User user = this.userCache.get(player.getUuid());
+        if (user == null) return; // Disconnected in the meantime
 
-        this.roleCache.remove(id);
+        this.replaceUserRoles(user, roleIds);
+        this.applyPermissions(player, user);
+    }
+
+    private void replaceUserRoles(@NotNull User user, @NotNull Collection<String> roleIds) {
+        this.markUpdated(user.id());
+        for (String roleId : user.roleIds()) {
+            if (!roleIds.contains(roleId)) this.removeRoleMember(roleId, user.id());
+        }
+        user.roleIds().retainAll(roleIds);
+        user.roleIds().addAll(roleIds);
+        for (String roleId : roleIds) {
+            this.addRoleMember(roleId, user.id());
+        }
     }
 
     void addRoleToUser(@NotNull UUID userId, @NotNull String roleId) {
@@ -159,7 +411,9 @@ public final class PermissionCache {
             return;
         }
 
+        this.markUpdated(userId);
         user.roleIds().add(roleId);
+        this.addRoleMember(roleId, userId);
         this.updateUserPermissions(user);
     }
 
@@ -170,31 +424,62 @@ public final class PermissionCache {
             return;
         }
 
+        this.markUpdated(userId);
         user.roleIds().remove(roleId);
+        this.removeRoleMember(roleId, userId);
         this.updateUserPermissions(user);
     }
 
-    private void refreshCommands(@NotNull UUID playerId) {
-        Player player = MinecraftServer.getConnectionManager().getOnlinePlayerByUuid(playerId);
-        if (player == null) {
-            LOGGER.error("Couldn't find player with id {}", playerId);
-            return;
-        }
+    private void onDisconnect(@NotNull PlayerDisconnectEvent event) {
+        this.audienceIndex.remove(event.getPlayer());
+        this.displayRoles.remove(event.getPlayer().getUuid());
 
-        player.refreshCommands();
+        User user = this.userCache.remove(event.getPlayer().getUuid());
+        this.cachedUserIds.remove(event.getPlayer().getUuid().toString());
+        this.userSequences.remove(event.getPlayer().getUuid());
+        if (user == null) return;
+
+        for (String roleId : user.roleIds()) {
+            this.removeRoleMember(roleId, user.id());
+        }
     }
 
-    private void onDisconnect(@NotNull PlayerDisconnectEvent event) {
-        this.userCache.remove(event.getPlayer().getUuid());
+    private void onPreLogin(@NotNull AsyncPlayerPreLoginEvent event) {
+        this.permissionLoader.prefetch(event.getGameProfile().uuid());
     }
 
     private void onLogin(@NotNull AsyncPlayerConfigurationEvent event) {
         this.loadUser(event.getPlayer());
     }
 
+    /**
+     * Updates that arrived while the player was configuring changed their cached roles, but couldn't be applied as the
+     * player wasn't online yet, so are applied now.
+     */
+    private void onSpawn(@NotNull PlayerSpawnEvent event) {
+        if (!event.isFirstSpawn()) return;
+
+        Player player = event.getPlayer();
+        User user = this.userCache.get(player.getUuid());
+        if (user == null) return;
+
+        // Snapshots are shared, so the matcher is the same instance if the player's permissions are up to date
+        PermissionSnapshot snapshot = this.getSnapshot(user.roleIds());
+        if (((PermissionHolder) player).getPermissionMatcher() != snapshot.matcher()) this.applyPermissions(player, user);
+    }
+
+    void shutdown() {
+        this.permissionLoader.shutdown();
+        this.reconciler.shutdown();
+        this.roleCatalogStore.shutdown();
+    }
+
     public record User(@NotNull UUID id, @NotNull Set<String> roleIds) {
     }
 
+    public record DisplayRole(@NotNull CachedRole role, @NotNull Component displayName) {
+    }
+
     public record CachedRole(@NotNull String id, @NotNull Set<Permission> permissions, int priority,
                              @NotNull String displayName) implements Comparable<CachedRole> {
 
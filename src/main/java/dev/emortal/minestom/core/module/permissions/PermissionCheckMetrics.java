@@ -0,0 +1,144 @@
+package dev.emortal.minestom.core.module.permissions;
+
+import dev.emortal.minestom.core.utils.EnvUtils;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.timer.TaskSchedule;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Optional instrumentation of permission checks, enabled with {@code PERMISSION_METRICS_ENABLED}.
+ * <p>
+ * Records the rate and latency of checks by how they matched, and keeps a bounded top-K sketch of the most checked
+ * nodes. Checks are recorded by the default {@link PermissionHolder#hasPermission(String)} implementations, which
+ * command conditions go through, so holders overriding them aren't instrumented. Until bound to a registry, checks are
+ * not instrumented at all.
+ */
+public final class PermissionCheckMetrics implements MeterBinder {
+    public static final boolean ENABLED = Boolean.parseBoolean(EnvUtils.getOrDefault("PERMISSION_METRICS_ENABLED", "false"));
+
+    private static final int TOP_NODES = 32;
+    // Only 1 in SAMPLE_RATE checks is offered to the sketch, as it has to take a lock
+    private static final int SAMPLE_RATE = 16;
+
+    private static volatile PermissionCheckMetrics instance;
+
+    private enum Match {
+        EXACT,
+        WILDCARD,
+        NONE
+    }
+
+    /**
+     * Checks a node against a matcher, recording the check if metrics are bound.
+     */
+    static boolean check(@NotNull PermissionMatcher matcher, @NotNull String node, boolean state) {
+        PermissionCheckMetrics metrics = instance;
+        if (metrics == null) return matcher.matches(node, state);
+
+        long start = System.nanoTime();
+        Match match;
+        if (matcher.matchesExact(node, state)) {
+            match = Match.EXACT;
+        } else if (matcher.matchesWildcard(node)) {
+            match = Match.WILDCARD;
+        } else {
+            match = Match.NONE;
+        }
+        metrics.record(match, node, System.nanoTime() - start);
+
+        return match != Match.NONE;
+    }
+
+    private final Timer[] timers = new Timer[Match.values().length];
+    private final TopNodeSketch topNodes = new TopNodeSketch(TOP_NODES);
+
+    @Override
+    public void bindTo(@NotNull MeterRegistry registry) {
+        for (Match match : Match.values()) {
+            this.timers[match.ordinal()] = Timer.builder("minestom.permissions.checks")
+                    .description("The time taken to check a permission")
+                    .tag("match", match.name().toLowerCase())
+                    .publishPercentiles(0.5, 0.95, 0.99)
+                    .register(registry);
+        }
+
+        MultiGauge topNodeGauge = MultiGauge.builder("minestom.permissions.checks.top")
+                .description("The estimated amount of checks of the most checked permission nodes")
+                .baseUnit("checks")
+                .register(registry);
+
+        MinecraftServer.getSchedulerManager().buildTask(() -> {
+            List<MultiGauge.Row<?>> rows = new ArrayList<>();
+            for (Map.Entry<String, Long> entry : this.topNodes.snapshot().entrySet()) {
+                rows.add(MultiGauge.Row.of(Tags.of("node", entry.getKey()), entry.getValue() * SAMPLE_RATE));
+            }
+            topNodeGauge.register(rows, true);
+        }).repeat(10, ChronoUnit.SECONDS).delay(TaskSchedule.nextTick()).schedule();
+
+        instance = this;
+    }
+
+    private void record(@NotNull Match match, @NotNull String node, long nanos) {
+        this.timers[match.ordinal()].record(nanos, TimeUnit.NANOSECONDS);
+        if (ThreadLocalRandom.current().nextInt(SAMPLE_RATE) == 0) this.topNodes.offer(node);
+    }
+
+    /**
+     * A Space-Saving sketch, tracking the approximate counts of the most frequent nodes in bounded memory.
+     */
+    private static final class TopNodeSketch {
+
+        private final int capacity;
+        private final Map<String, long[]> counts = new HashMap<>();
+
+        TopNodeSketch(int capacity) {
+            this.capacity = capacity;
+        }
+
+        synchronized void offer(@NotNull String node) {
+            long[] count = this.counts.get(node);
+            if (count != null) {
+                count[0]++;
+                return;
+            }
+
+            if (this.counts.size() < this.capacity) {
+                this.counts.put(node, new long[]{1});
+                return;
+            }
+
+            // Replace the least frequent node, inheriting its count as the new node's error bound
+            String minNode = null;
+            long min = Long.MAX_VALUE;
+            for (Map.Entry<String, long[]> entry : this.counts.entrySet()) {
+                if (entry.getValue()[0] < min) {
+                    min = entry.getValue()[0];
+                    minNode = entry.getKey();
+                }
+            }
+            this.counts.remove(minNode);
+            this.counts.put(node, new long[]{min + 1});
+        }
+
+        synchronized @NotNull Map<String, Long> snapshot() {
+            Map<String, Long> snapshot = new HashMap<>();
+            for (Map.Entry<String, long[]> entry : this.counts.entrySet()) {
+                snapshot.put(entry.getKey(), entry.getValue()[0]);
+            }
+            return snapshot;
+        }
+    }
+}
@@ -3,10 +3,15 @@ package dev.emortal.minestom.core.module.permissions;
 import org.jetbrains.annotations.NotNull;
 
 import java.util.Set;
-import java.util.regex.Pattern;
 
 public interface PermissionHolder {
 
+    /**
+     * Implementations may return a view that writes through to an immutable snapshot, in which case they should
+     * override the methods modifying permissions. Prefer those methods over modifying the returned set.
+     *
+     * @return the permissions held
+     */
     @NotNull Set<Permission> getPermissions();
 
     default void addPermission(@NotNull Permission permission) {
@@ -21,26 +26,32 @@ public interface PermissionHolder {
         this.getPermissions().removeIf(p -> p.permission().equals(permission));
     }
 
+    /**
+     * Replaces all permissions with those of the given snapshot.
+     *
+     * @param snapshot the permissions to hold
+     */
+    default void setPermissions(@NotNull PermissionSnapshot snapshot) {
+        this.getPermissions().clear();
+        this.getPermissions().addAll(snapshot.permissions());
+    }
+
+    /**
+     * Implementations that hold on to their permissions should cache the returned matcher and
+     * invalidate it when their permissions change.
+     *
+     * @return a compiled matcher for the current permissions
+     */
+    default @NotNull PermissionMatcher getPermissionMatcher() {
+        return PermissionMatcher.compile(this.getPermissions());
+    }
+
     default boolean hasPermission(@NotNull Permission permission) {
-        for (Permission permissionLoop : this.getPermissions()) {
-            if (permissionLoop.equals(permission)) {
-                return true;
-            }
-            String permissionLoopName = permissionLoop.permission();
-            if (permissionLoopName.contains("*")) {
-                // Sanitize permissionLoopName
-                String regexSanitized = Pattern.quote(permissionLoopName).replace("*", "\\E(.*)\\Q"); // Replace * with regex
-                // pattern matching for wildcards, where foo.b*r.baz matches foo.baaaar.baz or foo.bar.baz
-                if (permission.permission().matches(regexSanitized)) {
-                    return true;
-                }
-            }
-        }
-        return false;
+        return PermissionCheckMetrics.check(this.getPermissionMatcher(), permission.permission(), permission.state());
     }
 
     default boolean hasPermission(@NotNull String permission) {
-        return this.hasPermission(new Permission(permission, true));
+        return PermissionCheckMetrics.check(this.getPermissionMatcher(), permission, true);
     }
 
     default Permission getPermission(@NotNull String permission) {
@@ -0,0 +1,79 @@
+package dev.emortal.minestom.core.module.permissions;
+
+import dev.emortal.api.service.permission.PermissionService;
+import dev.emortal.minestom.core.utils.EnvUtils;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Loads player roles off the login path.
+ * <p>
+ * Fetches are started as early as possible (pre-login) and concurrent lookups for the same player share one request.
+ * The amount of requests in flight is bounded, so a proxy restart reconnecting every player at once doesn't
+ * flood the permission service.
+ */
+final class PermissionLoader {
+    static final Duration DEADLINE = Duration.ofMillis(Long.parseLong(EnvUtils.getOrDefault("PERMISSION_LOAD_DEADLINE_MS", "2000")));
+    private static final int MAX_CONCURRENT_REQUESTS = Integer.parseInt(EnvUtils.getOrDefault("PERMISSION_LOAD_CONCURRENCY", "32"));
+    // How long a prefetched result is kept after it completes. Role updates for players that aren't cached are dropped,
+    // so an older result may be stale, and is fetched again.
+    private static final long UNCLAIMED_EXPIRY_MILLIS = 1000;
+
+    private final @NotNull PermissionService permissionService;
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Semaphore requestPermits = new Semaphore(MAX_CONCURRENT_REQUESTS);
+    private final Map<UUID, CompletableFuture<List<String>>> pending = new ConcurrentHashMap<>();
+
+    PermissionLoader(@NotNull PermissionService permissionService) {
+        this.permissionService = permissionService;
+    }
+
+    /**
+     * Starts loading the roles of a player if they aren't already being loaded.
+     */
+    void prefetch(@NotNull UUID playerId) {
+        this.pending.computeIfAbsent(playerId, this::startFetch);
+    }
+
+    /**
+     * Takes the pending load for a player, starting one if none was prefetched or the prefetched result has expired.
+     *
+     * @return a future completing with the player's role IDs
+     */
+    @NotNull CompletableFuture<List<String>> take(@NotNull UUID playerId) {
+        CompletableFuture<List<String>> future = this.pending.remove(playerId);
+        return future != null ? future : this.startFetch(playerId);
+    }
+
+    private @NotNull CompletableFuture<List<String>> startFetch(@NotNull UUID playerId) {
+        CompletableFuture<List<String>> future = CompletableFuture.supplyAsync(() -> this.fetch(playerId), this.executor);
+
+        future.whenCompleteAsync((result, throwable) -> this.pending.remove(playerId, future),
+                CompletableFuture.delayedExecutor(UNCLAIMED_EXPIRY_MILLIS, TimeUnit.MILLISECONDS));
+        return future;
+    }
+
+    private @NotNull List<String> fetch(@NotNull UUID playerId) {
+        this.requestPermits.acquireUninterruptibly();
+        try {
+            return this.permissionService.getPlayerRoles(playerId).getRoleIdsList();
+        } finally {
+            this.requestPermits.release();
+        }
+    }
+
+    void shutdown() {
+        this.executor.shutdownNow();
+    }
+}
@@ -0,0 +1,232 @@
+package dev.emortal.minestom.core.module.permissions;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * An immutable, pre-compiled view of a set of permissions.
+ * <p>
+ * Exact nodes are resolved with a hash lookup, and wildcard nodes are compiled into a character trie where
+ * {@code *} matches any sequence of characters (so {@code foo.b*r.baz} matches {@code foo.bar.baz} and
+ * {@code foo.baaaar.baz}). The trie is matched without backtracking, so lookups take time linear in the length of the
+ * node, and do not allocate.
+ */
+public final class PermissionMatcher {
+    public static final @NotNull PermissionMatcher EMPTY = new PermissionMatcher(Set.of(), Set.of(), null);
+
+    public static @NotNull PermissionMatcher compile(@NotNull Collection<Permission> permissions) {
+        if (permissions.isEmpty()) return EMPTY;
+
+        Set<String> granted = new HashSet<>();
+        Set<String> denied = new HashSet<>();
+        NodeBuilder wildcardRoot = null;
+
+        for (Permission permission : permissions) {
+            String node = permission.permission();
+            (permission.state() ? granted : denied).add(node);
+
+            if (node.indexOf('*') != -1) {
+                if (wildcardRoot == null) wildcardRoot = new NodeBuilder();
+                wildcardRoot.insert(node);
+            }
+        }
+
+        Automaton wildcards = wildcardRoot == null ? null : new Automaton(wildcardRoot);
+        return new PermissionMatcher(Set.copyOf(granted), Set.copyOf(denied), wildcards);
+    }
+
+    private final @NotNull Set<String> granted;
+    private final @NotNull Set<String> denied;
+    private final @Nullable Automaton wildcards;
+
+    private PermissionMatcher(@NotNull Set<String> granted, @NotNull Set<String> denied, @Nullable Automaton wildcards) {
+        this.granted = granted;
+        this.denied = denied;
+        this.wildcards = wildcards;
+    }
+
+    /**
+     * @param node  the permission node to check
+     * @param state the state the node must be held with for an exact match. Wildcards match regardless of state.
+     * @return true if the node is held with the given state, or matches any held wildcard node
+     */
+    public boolean matches(@NotNull String node, boolean state) {
+        return this.matchesExact(node, state) || this.matchesWildcard(node);
+    }
+
+    public boolean matchesExact(@NotNull String node, boolean state) {
+        return (state ? this.granted : this.denied).contains(node);
+    }
+
+    public boolean matchesWildcard(@NotNull String node) {
+        return this.wildcards != null && this.wildcards.matches(node);
+    }
+
+    /**
+     * The wildcard trie, flattened into arrays indexed by node, and matched by simulating it as an NFA. A {@code *}
+     * node loops on any character, and is entered from its parent without consuming one. Every node is in the set of
+     * current states at most once, so a lookup costs at most the length of the node times the size of the trie, rather
+     * than backtracking over every split of the wildcards.
+     */
+    private static final class Automaton {
+        private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+        private final char[][] keys; // Sorted, for binary search
+        private final int[][] children;
+        private final int[] stars; // -1 if the node has no wildcard
+        private final boolean[] loops; // Whether the node is a wildcard
+        private final boolean[] terminal;
+
+        Automaton(@NotNull NodeBuilder root) {
+            List<NodeBuilder> nodes = new ArrayList<>();
+            root.number(nodes);
+
+            int size = nodes.size();
+            this.keys = new char[size][];
+            this.children = new int[size][];
+            this.stars = new int[size];
+            this.loops = new boolean[size];
+            this.terminal = new boolean[size];
+
+            for (NodeBuilder node : nodes) {
+                int id = node.id;
+                this.keys[id] = new char[node.children.size()];
+                this.children[id] = new int[node.children.size()];
+
+                int i = 0;
+                for (Map.Entry<Character, NodeBuilder> entry : node.children.entrySet()) {
+                    this.keys[id][i] = entry.getKey();
+                    this.children[id][i] = entry.getValue().id;
+                    i++;
+                }
+
+                this.stars[id] = node.star == null ? -1 : node.star.id;
+                this.loops[id] = node.loops;
+                this.terminal[id] = node.terminal;
+            }
+        }
+
+        boolean matches(@NotNull String node) {
+            Scratch scratch = SCRATCH.get();
+            scratch.ensureCapacity(this.terminal.length);
+
+            int[] current = scratch.current;
+            int[] next = scratch.next;
+            int count = this.add(0, current, 0, scratch.marks, scratch.nextStamp());
+
+            for (int i = 0; i < node.length() && count > 0; i++) {
+                char c = node.charAt(i);
+                int stamp = scratch.nextStamp();
+                int nextCount = 0;
+
+                for (int j = 0; j < count; j++) {
+                    int state = current[j];
+                    if (this.loops[state]) nextCount = this.add(state, next, nextCount, scratch.marks, stamp);
+
+                    int child = this.child(state, c);
+                    if (child != -1) nextCount = this.add(child, next, nextCount, scratch.marks, stamp);
+                }
+
+                int[] swap = current;
+                current = next;
+                next = swap;
+                count = nextCount;
+            }
+
+            for (int j = 0; j < count; j++) {
+                if (this.terminal[current[j]]) return true;
+            }
+            return false;
+        }
+
+        private int add(int state, int[] set, int count, int[] marks, int stamp) {
+            // Entering a node also enters its wildcard, which may match zero characters
+            while (state != -1 && marks[state] != stamp) {
+                marks[state] = stamp;
+                set[count++] = state;
+                state = this.stars[state];
+            }
+            return count;
+        }
+
+        private int child(int state, char c) {
+            int index = Arrays.binarySearch(this.keys[state], c);
+            return index < 0 ? -1 : this.children[state][index];
+        }
+    }
+
+    /**
+     * Per-thread state sets for {@link Automaton#matches(String)}, grown to the largest automaton seen, so lookups don't
+     * allocate.
+     */
+    private static final class Scratch {
+        int[] current = new int[0];
+        int[] next = new int[0];
+        int[] marks = new int[0];
+        private int stamp;
+
+        void ensureCapacity(int size) {
+            if (this.marks.length >= size) return;
+
+            this.current = new int[size];
+            this.next = new int[size];
+            this.marks = new int[size];
+            this.stamp = 0;
+        }
+
+        int nextStamp() {
+            if (++this.stamp == Integer.MAX_VALUE) {
+                Arrays.fill(this.marks, 0);
+                this.stamp = 1;
+            }
+            return this.stamp;
+        }
+    }
+
+    private static final class NodeBuilder {
+        final Map<Character, NodeBuilder> children = new TreeMap<>();
+        NodeBuilder star;
+        boolean loops;
+        boolean terminal;
+        int id;
+
+        void insert(@NotNull String pattern) {
+            NodeBuilder current = this;
+            for (int i = 0; i < pattern.length(); i++) {
+                char c = pattern.charAt(i);
+                if (c == '*') {
+                    // Consecutive wildcards are equivalent to one
+                    if (i > 0 && pattern.charAt(i - 1) == '*') continue;
+
+                    if (current.star == null) {
+                        current.star = new NodeBuilder();
+                        current.star.loops = true;
+                    }
+                    current = current.star;
+                } else {
+                    current = current.children.computeIfAbsent(c, key -> new NodeBuilder());
+                }
+            }
+            current.terminal = true;
+        }
+
+        void number(@NotNull List<NodeBuilder> nodes) {
+            this.id = nodes.size();
+            nodes.add(this);
+
+            for (NodeBuilder child : this.children.values()) {
+                child.number(nodes);
+            }
+            if (this.star != null) this.star.number(nodes);
+        }
+    }
+}
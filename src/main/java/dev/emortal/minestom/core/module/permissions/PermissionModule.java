@@ -14,6 +14,8 @@ import org.jetbrains.annotations.Nullable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.concurrent.Executor;
+
 @ModuleData(name = "permissions", dependencies = {@Dependency(name = "messaging", required = false)})
 public final class PermissionModule extends MinestomModule {
     private static final Logger LOGGER = LoggerFactory.getLogger(PermissionModule.class);
@@ -29,7 +31,7 @@ public final class PermissionModule extends MinestomModule {
     }
 
     @Override
-    public boolean onLoad() {
+    protected boolean load() {
         if (!ENABLED) {
             if (GRANT_ALL_PERMISSIONS) {
                 LOGGER.warn("Permission service is not available, granting all permissions");
@@ -47,9 +49,13 @@ public final class PermissionModule extends MinestomModule {
             return false;
         }
 
-        this.permissionCache = new PermissionCache(service, this.eventNode);
-
         MessagingModule messagingModule = this.getOptionalModule(MessagingModule.class);
+        // State fetched from the permission service is applied in order with the update messages
+        Executor updateExecutor = messagingModule != null
+                ? task -> messagingModule.dispatch(PermissionUpdateListener.ORDERING_KEY, task)
+                : Runnable::run;
+        this.permissionCache = new PermissionCache(service, this.eventNode, updateExecutor);
+
         if (messagingModule != null) {
             new PermissionUpdateListener(this.permissionCache, messagingModule);
         }
@@ -59,6 +65,7 @@ public final class PermissionModule extends MinestomModule {
 
     @Override
     public void onUnload() {
+        if (this.permissionCache != null) this.permissionCache.shutdown();
     }
 
     public @Nullable PermissionCache getPermissionCache() {
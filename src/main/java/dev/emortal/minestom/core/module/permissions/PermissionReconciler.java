@@ -0,0 +1,119 @@
+package dev.emortal.minestom.core.module.permissions;
+
+import dev.emortal.api.model.permission.Role;
+import dev.emortal.api.service.permission.PermissionService;
+import dev.emortal.minestom.core.utils.EnvUtils;
+import org.jetbrains.annotations.NotNull;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Periodically checks the permission cache against the permission service, correcting any drift caused by
+ * lost or reordered update messages.
+ * <p>
+ * The role catalog is fetched and only changed roles are applied. Users are checked round-robin, a bounded amount per
+ * run, so the cost of a run doesn't grow with the amount of online players.
+ * <p>
+ * State is fetched concurrently on virtual threads, and only the result is applied on the update executor, in order
+ * with the update messages. A result is discarded if an update was applied since its fetch started, as it may be
+ * older than that update and would revert it.
+ */
+final class PermissionReconciler {
+    private static final Logger LOGGER = LoggerFactory.getLogger(PermissionReconciler.class);
+
+    private static final long INTERVAL_SECONDS = Long.parseLong(EnvUtils.getOrDefault("PERMISSION_RECONCILE_INTERVAL_SECONDS", "60"));
+    private static final int USERS_PER_RUN = Integer.parseInt(EnvUtils.getOrDefault("PERMISSION_RECONCILE_USERS_PER_RUN", "50"));
+
+    private final @NotNull PermissionService permissionService;
+    private final @NotNull PermissionCache permissionCache;
+    private final @NotNull Executor updateExecutor;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final ExecutorService fetchExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Queue<UUID> userCursor = new ArrayDeque<>(); // only accessed from the scheduler thread
+
+    PermissionReconciler(@NotNull PermissionService permissionService, @NotNull PermissionCache permissionCache,
+                         @NotNull Executor updateExecutor) {
+        this.permissionService = permissionService;
+        this.permissionCache = permissionCache;
+        this.updateExecutor = updateExecutor;
+
+        this.scheduler.scheduleWithFixedDelay(this::run, INTERVAL_SECONDS, INTERVAL_SECONDS, TimeUnit.SECONDS);
+    }
+
+    private void run() {
+        try {
+            this.reconcileRoles();
+            this.reconcileUsers();
+        } catch (RuntimeException exception) {
+            // Don't let an unexpected error cancel the scheduled task
+            LOGGER.error("Unexpected error reconciling permissions", exception);
+        }
+    }
+
+    private void reconcileRoles() {
+        long sequence = this.permissionCache.getCatalogSequence();
+
+        CompletableFuture.supplyAsync(this.permissionService::getAllRoles, this.fetchExecutor)
+                .thenAccept(roles -> this.updateExecutor.execute(() -> this.applyRoles(sequence, roles)))
+                .exceptionally(throwable -> {
+                    LOGGER.warn("Failed to reconcile the role catalog", throwable);
+                    return null;
+                });
+    }
+
+    private void applyRoles(long sequence, @NotNull List<Role> roles) {
+        if (this.permissionCache.getCatalogSequence() != sequence) return; // Updated since the fetch started
+
+        if (this.permissionCache.applyRoleCatalog(roles)) {
+            LOGGER.info("Role catalog drifted from the permission service, reconciled");
+        }
+    }
+
+    private void reconcileUsers() {
+        if (this.userCursor.isEmpty()) this.userCursor.addAll(this.permissionCache.getUserIds());
+
+        for (int i = 0; i < USERS_PER_RUN; i++) {
+            UUID userId = this.userCursor.poll();
+            if (userId == null) return;
+
+            long sequence = this.permissionCache.getUserSequence(userId);
+            if (sequence == PermissionCache.NO_SEQUENCE) continue; // Disconnected since the cursor was filled
+
+            CompletableFuture.supplyAsync(() -> this.permissionService.getPlayerRoles(userId).getRoleIdsList(), this.fetchExecutor)
+                    .thenAccept(roleIds -> this.updateExecutor.execute(() -> this.applyUser(userId, sequence, roleIds)))
+                    .exceptionally(throwable -> {
+                        LOGGER.warn("Failed to reconcile the roles of user {}", userId, throwable);
+                        return null;
+                    });
+        }
+    }
+
+    private void applyUser(@NotNull UUID userId, long sequence, @NotNull List<String> roleIds) {
+        // Updated or disconnected since the fetch started
+        if (this.permissionCache.getUserSequence(userId) != sequence) return;
+
+        PermissionCache.User user = this.permissionCache.getUser(userId).orElse(null);
+        if (user == null || user.roleIds().equals(Set.copyOf(roleIds))) return;
+
+        LOGGER.info("Roles of user {} drifted from the permission service, reconciling", userId);
+        this.permissionCache.setUserRoles(userId, roleIds);
+    }
+
+    void shutdown() {
+        this.scheduler.shutdownNow();
+        this.fetchExecutor.shutdownNow();
+    }
+}
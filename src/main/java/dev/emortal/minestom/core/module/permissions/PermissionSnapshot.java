@@ -0,0 +1,39 @@
+package dev.emortal.minestom.core.module.permissions;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * An immutable set of permissions alongside its compiled {@link PermissionMatcher}.
+ * <p>
+ * Snapshots for role combinations are interned by the {@link PermissionCache}, so players holding the same roles
+ * share the same instance.
+ */
+public final class PermissionSnapshot {
+    public static final @NotNull PermissionSnapshot EMPTY = new PermissionSnapshot(Set.of(), PermissionMatcher.EMPTY);
+
+    public static @NotNull PermissionSnapshot of(@NotNull Collection<Permission> permissions) {
+        if (permissions.isEmpty()) return EMPTY;
+
+        Set<Permission> copy = Set.copyOf(permissions);
+        return new PermissionSnapshot(copy, PermissionMatcher.compile(copy));
+    }
+
+    private final @NotNull Set<Permission> permissions;
+    private final @NotNull PermissionMatcher matcher;
+
+    private PermissionSnapshot(@NotNull Set<Permission> permissions, @NotNull PermissionMatcher matcher) {
+        this.permissions = permissions;
+        this.matcher = matcher;
+    }
+
+    public @NotNull Set<Permission> permissions() {
+        return this.permissions;
+    }
+
+    public @NotNull PermissionMatcher matcher() {
+        return this.matcher;
+    }
+}
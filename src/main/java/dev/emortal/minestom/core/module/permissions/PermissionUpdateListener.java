@@ -9,14 +9,23 @@ import org.jetbrains.annotations.NotNull;
 import java.util.UUID;
 
 public final class PermissionUpdateListener {
+    /**
+     * The ordering key of all permission updates. Anything else modifying cached users (e.g. reconciliation) must be
+     * dispatched with it too, so it can't interleave with an update.
+     */
+    static final Object ORDERING_KEY = PermissionUpdateListener.class;
 
     private final @NotNull PermissionCache permissionCache;
 
     public PermissionUpdateListener(@NotNull PermissionCache permissionCache, @NotNull MessagingModule module) {
         this.permissionCache = permissionCache;
 
-        module.addListener(RoleUpdateMessage.class, this::onRoleUpdate);
-        module.addListener(PlayerRolesUpdateMessage.class, this::onPlayerRolesUpdate);
+        // Role and player role updates both modify the cached users, so are handled in order with each other
+        module.addListener(RoleUpdateMessage.class, message -> ORDERING_KEY, this::onRoleUpdate);
+        // Only players cached on this server are affected, so updates for other players are dropped on the consumer thread.
+        // Players are cached from configuration, before they are in the local player index.
+        module.addListener(PlayerRolesUpdateMessage.class, message -> permissionCache.isUserCached(message.getPlayerId()),
+                message -> ORDERING_KEY, this::onPlayerRolesUpdate);
     }
 
     private void onRoleUpdate(@NotNull RoleUpdateMessage message) {
@@ -0,0 +1,110 @@
+package dev.emortal.minestom.core.module.permissions;
+
+import dev.emortal.api.model.permission.Role;
+import dev.emortal.minestom.core.utils.EnvUtils;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Persists the role catalog to a local file as length-delimited {@link Role} messages, so the permission cache can
+ * start from the last known roles without waiting on the permission service.
+ * <p>
+ * Writes are coalesced and happen off the calling thread.
+ */
+final class RoleCatalogStore {
+    private static final Logger LOGGER = LoggerFactory.getLogger(RoleCatalogStore.class);
+
+    private static final Path PATH = Path.of(EnvUtils.getOrDefault("PERMISSION_ROLE_CATALOG_PATH", "role-catalog.bin"));
+
+    private final Map<String, Role> roles = new ConcurrentHashMap<>();
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(Thread.ofVirtual().name("role-catalog-writer").factory());
+    private final AtomicBoolean writeScheduled = new AtomicBoolean();
+
+    /**
+     * @return the roles of the last persisted catalog, or an empty list if there is none
+     */
+    @NotNull List<Role> load() {
+        if (!Files.exists(PATH)) return List.of();
+
+        List<Role> loaded = new ArrayList<>();
+        try (InputStream input = new BufferedInputStream(Files.newInputStream(PATH))) {
+            Role role;
+            while ((role = Role.parseDelimitedFrom(input)) != null) {
+                loaded.add(role);
+            }
+        } catch (IOException exception) {
+            LOGGER.error("Failed to read role catalog from {}", PATH, exception);
+            return List.of();
+        }
+
+        for (Role role : loaded) {
+            this.roles.put(role.getId(), role);
+        }
+        LOGGER.info("Loaded {} roles from {}", loaded.size(), PATH);
+        return loaded;
+    }
+
+    @Nullable Role get(@NotNull String id) {
+        return this.roles.get(id);
+    }
+
+    @NotNull Collection<Role> getAll() {
+        return this.roles.values();
+    }
+
+    void put(@NotNull Role role) {
+        Role previous = this.roles.put(role.getId(), role);
+        if (!role.equals(previous)) this.scheduleWrite();
+    }
+
+    void remove(@NotNull String id) {
+        if (this.roles.remove(id) != null) this.scheduleWrite();
+    }
+
+    private void scheduleWrite() {
+        if (this.writeScheduled.compareAndSet(false, true)) {
+            this.writer.execute(this::write);
+        }
+    }
+
+    private void write() {
+        // Reset before reading the roles, so that changes made during the write schedule another one
+        this.writeScheduled.set(false);
+
+        try {
+            Path tempPath = PATH.resolveSibling(PATH.getFileName() + ".tmp");
+            try (OutputStream output = new BufferedOutputStream(Files.newOutputStream(tempPath))) {
+                for (Role role : this.roles.values()) {
+                    role.writeDelimitedTo(output);
+                }
+            }
+            Files.move(tempPath, PATH, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException exception) {
+            LOGGER.error("Failed to write role catalog to {}", PATH, exception);
+        }
+    }
+
+    void shutdown() {
+        this.writer.shutdown();
+    }
+}
@@ -0,0 +1,143 @@
+package dev.emortal.minestom.core.utils;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentLike;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.TextReplacementConfig;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A MiniMessage template parsed once, with placeholders substituted on each render.
+ * <p>
+ * Placeholders are parsed as marker text, which is replaced in the component tree when rendering, so rendering never
+ * parses the template again. Values are inserted in the style of the surrounding text, like
+ * {@link Placeholder#unparsed(String, String)} and {@link Placeholder#component(String, ComponentLike)}.
+ * Placeholders are only supported in text, not in tag arguments or hover events.
+ * <p>
+ * Modifying tags (e.g. gradient and rainbow) split their text into a component per character, and would be computed
+ * over the marker rather than the value. Templates where a marker was split fall back to parsing the template with
+ * real placeholders on each render.
+ */
+public final class MiniMessageTemplate {
+    private static final MiniMessage MINI_MESSAGE = MiniMessage.miniMessage();
+
+    // Private use characters, so markers can't clash with the template's own text
+    private static final char MARKER_START = '\uE000';
+    private static final char MARKER_END = '\uE001';
+    private static final Pattern MARKER_PATTERN = Pattern.compile(MARKER_START + "(\\d+)" + MARKER_END);
+    private static final String[] NO_VALUES = new String[0];
+
+    /**
+     * @param template     the MiniMessage template
+     * @param placeholders the names of the template's placeholders, in the order their values are given when rendering
+     */
+    public static @NotNull MiniMessageTemplate compile(@NotNull String template, @NotNull String... placeholders) {
+        TagResolver.Builder resolvers = TagResolver.builder();
+        for (int i = 0; i < placeholders.length; i++) {
+            resolvers.resolver(Placeholder.unparsed(placeholders[i], MARKER_START + String.valueOf(i) + MARKER_END));
+        }
+
+        Component compiled = MINI_MESSAGE.deserialize(template, resolvers.build());
+        return new MiniMessageTemplate(template, hasSplitMarker(compiled) ? null : compiled, List.of(placeholders));
+    }
+
+    /**
+     * @return true if any marker was split across components, so can't be replaced
+     */
+    private static boolean hasSplitMarker(@NotNull Component compiled) {
+        StringBuilder text = new StringBuilder();
+        int intactMarkers = countIntactMarkers(compiled, text);
+        return intactMarkers != countMarkers(text);
+    }
+
+    private static int countIntactMarkers(@NotNull Component component, @NotNull StringBuilder text) {
+        int count = 0;
+        if (component instanceof TextComponent textComponent) {
+            text.append(textComponent.content());
+            count += countMarkers(textComponent.content());
+        }
+
+        for (Component child : component.children()) {
+            count += countIntactMarkers(child, text);
+        }
+        return count;
+    }
+
+    private static int countMarkers(@NotNull CharSequence text) {
+        Matcher matcher = MARKER_PATTERN.matcher(text);
+        int count = 0;
+        while (matcher.find()) count++;
+        return count;
+    }
+
+    private final @NotNull String template;
+    private final @Nullable Component compiled; // null if the template must be parsed on each render
+    private final @NotNull List<String> placeholders;
+
+    private MiniMessageTemplate(@NotNull String template, @Nullable Component compiled, @NotNull List<String> placeholders) {
+        this.template = template;
+        this.compiled = compiled;
+        this.placeholders = placeholders;
+    }
+
+    /**
+     * @return the rendered template, for templates without placeholders
+     */
+    public @NotNull Component render() {
+        return this.render(NO_VALUES);
+    }
+
+    /**
+     * @param values the unparsed text of each placeholder, in the order the placeholders were given when compiling
+     */
+    public @NotNull Component render(@NotNull String... values) {
+        this.checkValues(values.length);
+        if (this.compiled == null) {
+            TagResolver.Builder resolvers = TagResolver.builder();
+            for (int i = 0; i < values.length; i++) {
+                resolvers.resolver(Placeholder.unparsed(this.placeholders.get(i), values[i]));
+            }
+            return MINI_MESSAGE.deserialize(this.template, resolvers.build());
+        }
+        if (values.length == 0) return this.compiled;
+
+        return this.compiled.replaceText(TextReplacementConfig.builder()
+                .match(MARKER_PATTERN)
+                .replacement((match, builder) -> builder.content(values[Integer.parseInt(match.group(1))]))
+                .build());
+    }
+
+    /**
+     * @param values the component of each placeholder, in the order the placeholders were given when compiling
+     */
+    public @NotNull Component render(@NotNull ComponentLike... values) {
+        this.checkValues(values.length);
+        if (this.compiled == null) {
+            TagResolver.Builder resolvers = TagResolver.builder();
+            for (int i = 0; i < values.length; i++) {
+                resolvers.resolver(Placeholder.component(this.placeholders.get(i), values[i]));
+            }
+            return MINI_MESSAGE.deserialize(this.template, resolvers.build());
+        }
+        if (values.length == 0) return this.compiled;
+
+        return this.compiled.replaceText(TextReplacementConfig.builder()
+                .match(MARKER_PATTERN)
+                .replacement((match, builder) -> values[Integer.parseInt(match.group(1))])
+                .build());
+    }
+
+    private void checkValues(int count) {
+        if (count != this.placeholders.size()) {
+            throw new IllegalArgumentException("Expected values for " + this.placeholders + ", got " + count + " values");
+        }
+    }
+}
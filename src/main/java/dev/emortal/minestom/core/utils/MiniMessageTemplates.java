@@ -0,0 +1,67 @@
+package dev.emortal.minestom.core.utils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Metrics;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bounded cache of compiled templates, for templates only known at runtime (e.g. received in messages).
+ * Templates known at compile time should be compiled once into a constant with {@link MiniMessageTemplate#compile}.
+ * <p>
+ * The least recently used template is evicted once the cache holds {@code MINIMESSAGE_TEMPLATE_CACHE_SIZE} templates.
+ */
+public final class MiniMessageTemplates {
+    private static final int CAPACITY = Integer.parseInt(EnvUtils.getOrDefault("MINIMESSAGE_TEMPLATE_CACHE_SIZE", "512"));
+
+    private static final Map<Key, MiniMessageTemplate> CACHE = new LinkedHashMap<>(16, 0.75F, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, MiniMessageTemplate> eldest) {
+            return this.size() > CAPACITY;
+        }
+    };
+
+    private static final Counter HITS = lookupCounter("hit");
+    private static final Counter MISSES = lookupCounter("miss");
+
+    /**
+     * @return the compiled template, compiling it if it is not cached
+     * @see MiniMessageTemplate#compile(String, String...)
+     */
+    public static @NotNull MiniMessageTemplate get(@NotNull String template, @NotNull String... placeholders) {
+        Key key = new Key(template, List.of(placeholders));
+
+        synchronized (CACHE) {
+            MiniMessageTemplate cached = CACHE.get(key);
+            if (cached != null) {
+                HITS.increment();
+                return cached;
+            }
+        }
+
+        // Compiled outside the lock, as parsing is the expensive part. A race may compile a template twice.
+        MISSES.increment();
+        MiniMessageTemplate compiled = MiniMessageTemplate.compile(template, placeholders);
+        synchronized (CACHE) {
+            CACHE.put(key, compiled);
+        }
+        return compiled;
+    }
+
+    private static @NotNull Counter lookupCounter(@NotNull String result) {
+        return Counter.builder("minestom.minimessage.templates")
+                .description("The amount of template cache lookups")
+                .tag("result", result)
+                .register(Metrics.globalRegistry);
+    }
+
+    private record Key(@NotNull String template, @NotNull List<String> placeholders) {
+    }
+
+    private MiniMessageTemplates() {
+        throw new AssertionError("This class cannot be instantiated.");
+    }
+}
@@ -6,21 +6,26 @@ import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
 import java.net.ConnectException;
+import java.net.InetSocketAddress;
 import java.net.Socket;
+import java.net.SocketTimeoutException;
 
 public final class PortUtils {
     private static final Logger LOGGER = LoggerFactory.getLogger(PortUtils.class);
 
+    private static final int CONNECT_TIMEOUT_MILLIS = 500;
+
     /**
      * @param port    Port to check
      * @param address Address to check
      * @return True if the port is used, false if not.
      */
     public static boolean isPortUsed(@NotNull String address, int port) {
-        try (var socket = new Socket(address, port)) {
-            socket.setSoTimeout(50);
+        try (var socket = new Socket()) {
+            // Without a timeout, an unreachable host blocks for the OS connect timeout
+            socket.connect(new InetSocketAddress(address, port), CONNECT_TIMEOUT_MILLIS);
             return true;
-        } catch (ConnectException exception) {
+        } catch (ConnectException | SocketTimeoutException exception) {
             return false;
         } catch (IOException exception) {
             LOGGER.error("Error while checking if port is used", exception);
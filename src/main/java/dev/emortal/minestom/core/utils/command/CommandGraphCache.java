@@ -0,0 +1,67 @@
+package dev.emortal.minestom.core.utils.command;
+
+import dev.emortal.minestom.core.module.permissions.PermissionHolder;
+import dev.emortal.minestom.core.module.permissions.PermissionMatcher;
+import dev.emortal.minestom.core.utils.EnvUtils;
+import net.minestom.server.MinecraftServer;
+import net.minestom.server.command.CommandManager;
+import net.minestom.server.entity.Player;
+import net.minestom.server.network.packet.server.CachedPacket;
+import net.minestom.server.network.packet.server.SendablePacket;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Caches serialised declare commands packets by permission matcher.
+ * <p>
+ * Players sharing a permission snapshot (and therefore a matcher) receive the same cached command tree, which is only
+ * correct if every command condition depends on nothing but the sender's permissions. Conditions checking anything
+ * else (e.g. the player's instance, game state or game mode) would leak one player's tree to another, so the cache is
+ * disabled unless {@code ENABLE_COMMAND_GRAPH_CACHE} is set.
+ * <p>
+ * The cache is cleared when a command is registered or unregistered. Changes to registered commands (syntaxes,
+ * subcommands and conditions) are not detected, so servers enabling the cache must not change commands after
+ * registering them. Entries are weakly keyed, so they are dropped along with the snapshots they were built for.
+ */
+public final class CommandGraphCache {
+    private static final boolean ENABLED = Boolean.parseBoolean(EnvUtils.getOrDefault("ENABLE_COMMAND_GRAPH_CACHE", "false"));
+
+    private static final Map<PermissionMatcher, CachedPacket> CACHE = Collections.synchronizedMap(new WeakHashMap<>());
+    private static int commandsFingerprint; // guarded by CACHE
+
+    public static @NotNull SendablePacket getDeclareCommandsPacket(@NotNull Player player) {
+        CommandManager commandManager = MinecraftServer.getCommandManager();
+        if (!ENABLED || !(player instanceof PermissionHolder permHolder)) {
+            return commandManager.createDeclareCommandsPacket(player);
+        }
+
+        PermissionMatcher key = permHolder.getPermissionMatcher();
+        // Commands don't override hashCode, so this changes when a command is registered or unregistered
+        int fingerprint = commandManager.getCommands().hashCode();
+
+        synchronized (CACHE) {
+            if (fingerprint != commandsFingerprint) {
+                CACHE.clear();
+                commandsFingerprint = fingerprint;
+            }
+
+            CachedPacket packet = CACHE.get(key);
+            if (packet != null) return packet;
+        }
+
+        // Built outside the lock, as evaluating every condition is the expensive part
+        CachedPacket packet = new CachedPacket(commandManager.createDeclareCommandsPacket(player));
+        synchronized (CACHE) {
+            // Don't cache a tree built against commands that have since changed
+            if (fingerprint == commandsFingerprint) CACHE.put(key, packet);
+        }
+        return packet;
+    }
+
+    private CommandGraphCache() {
+        throw new AssertionError("This class cannot be instantiated.");
+    }
+}
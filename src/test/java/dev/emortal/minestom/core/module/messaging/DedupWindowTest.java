@@ -0,0 +1,81 @@
+package dev.emortal.minestom.core.module.messaging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashSet;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DedupWindowTest {
+    private static final long HOUR_NANOS = TimeUnit.HOURS.toNanos(1);
+
+    @Test
+    void repeatedKeyIsNotFirstSeen() {
+        DedupWindow window = new DedupWindow(4, HOUR_NANOS);
+
+        assertTrue(window.firstSeen(42));
+        assertFalse(window.firstSeen(42));
+        assertTrue(window.firstSeen(43));
+    }
+
+    @Test
+    void zeroKeyIsTracked() {
+        DedupWindow window = new DedupWindow(4, HOUR_NANOS);
+
+        assertTrue(window.firstSeen(0));
+        assertFalse(window.firstSeen(0));
+    }
+
+    @Test
+    void oldestKeyIsForgottenWhenFull() {
+        DedupWindow window = new DedupWindow(2, HOUR_NANOS);
+
+        window.firstSeen(1);
+        window.firstSeen(2);
+        window.firstSeen(3); // forgets 1
+
+        assertFalse(window.firstSeen(2));
+        assertFalse(window.firstSeen(3));
+        assertTrue(window.firstSeen(1));
+    }
+
+    @Test
+    void keysAreForgottenAfterTheWindow() throws InterruptedException {
+        DedupWindow window = new DedupWindow(4, TimeUnit.MILLISECONDS.toNanos(1));
+
+        assertTrue(window.firstSeen(42));
+        Thread.sleep(5);
+        assertTrue(window.firstSeen(42));
+    }
+
+    /**
+     * Forgetting the oldest key deletes it from the hash table with a backward shift. A small key range in a small table
+     * produces long probe sequences and wrap around, so the remaining keys are checked against a simple model after
+     * every deletion.
+     */
+    @Test
+    void matchesModelUnderEviction() {
+        for (int capacity : new int[]{1, 2, 3, 8, 13, 64}) {
+            DedupWindow window = new DedupWindow(capacity, HOUR_NANOS);
+            LinkedHashSet<Long> model = new LinkedHashSet<>();
+            Random random = new Random(capacity);
+
+            for (int i = 0; i < 100_000; i++) {
+                long key = 1 + random.nextInt(capacity * 3);
+
+                boolean expected = !model.contains(key);
+                if (expected) {
+                    if (model.size() == capacity) model.remove(model.iterator().next());
+                    model.add(key);
+                }
+
+                int step = i;
+                assertEquals(expected, window.firstSeen(key), () -> "capacity " + capacity + ", step " + step + ", key " + key);
+            }
+        }
+    }
+}
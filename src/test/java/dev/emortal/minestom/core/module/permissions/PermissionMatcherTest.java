@@ -0,0 +1,115 @@
+package dev.emortal.minestom.core.module.permissions;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PermissionMatcherTest {
+
+    private static final List<String> NODES = List.of(
+            "", "foo", "foo.bar", "foo.bar.baz", "foo.baaaar.baz", "foo.br.baz", "foo.bar.baz.qux", "foo.bar.qux",
+            "bar.baz", "x.foo.bar.baz", "foo.b.r.baz", "foo.*", "foo.b*r.baz", "a.b.c", "abc"
+    );
+
+    private static final List<String> PATTERNS = List.of(
+            "*", "foo.*", "*.baz", "*.bar.*", "foo.b*r.baz", "foo.**.baz", "foo.b**r.baz", "**", "foo.*.*.baz",
+            "foo.bar.baz", "foo", "a*c", "*foo*"
+    );
+
+    @Test
+    void wildcardsMatchLikeTheRegexImplementation() {
+        for (String pattern : PATTERNS) {
+            for (boolean state : new boolean[]{true, false}) {
+                Set<Permission> permissions = Set.of(new Permission(pattern, state));
+                PermissionMatcher matcher = PermissionMatcher.compile(permissions);
+
+                for (String node : NODES) {
+                    for (boolean queryState : new boolean[]{true, false}) {
+                        assertEquals(regexHasPermission(permissions, new Permission(node, queryState)),
+                                matcher.matches(node, queryState),
+                                () -> pattern + " (" + state + ") against " + node + " (" + queryState + ")");
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void multipleWildcardsMatchLikeTheRegexImplementation() {
+        Set<Permission> permissions = Set.of(
+                new Permission("foo.b*r.baz", true),
+                new Permission("*.qux", false),
+                new Permission("foo.bar", false),
+                new Permission("abc", true)
+        );
+        PermissionMatcher matcher = PermissionMatcher.compile(permissions);
+
+        for (String node : NODES) {
+            for (boolean queryState : new boolean[]{true, false}) {
+                assertEquals(regexHasPermission(permissions, new Permission(node, queryState)),
+                        matcher.matches(node, queryState), () -> node + " (" + queryState + ")");
+            }
+        }
+    }
+
+    @Test
+    void manyWildcardsDoNotBacktrack() {
+        PermissionMatcher matcher = PermissionMatcher.compile(Set.of(
+                new Permission("*a*a*a*a*a*a*a*a*a*a*b", true),
+                new Permission("*a*a*a*a*a*a*a*a*a*a*c", true)
+        ));
+        String node = "a".repeat(10_000);
+
+        // Trying every split of the wildcards would take O(n^k) for k wildcards, which wouldn't finish
+        assertTimeoutPreemptively(Duration.ofSeconds(5), () -> assertFalse(matcher.matches(node, true)));
+        assertTrue(matcher.matches(node + "c", true));
+    }
+
+    @Test
+    void deniedWildcardStillGrants() {
+        PermissionMatcher matcher = PermissionMatcher.compile(Set.of(new Permission("foo.*", false)));
+
+        assertTrue(matcher.matches("foo.bar", true));
+        assertTrue(matcher.matches("foo.bar", false));
+    }
+
+    @Test
+    void exactNodeOnlyMatchesItsState() {
+        PermissionMatcher matcher = PermissionMatcher.compile(Set.of(new Permission("foo.bar", false)));
+
+        assertFalse(matcher.matches("foo.bar", true));
+        assertTrue(matcher.matches("foo.bar", false));
+        assertFalse(matcher.matches("foo", false));
+    }
+
+    @Test
+    void emptyMatchesNothing() {
+        assertFalse(PermissionMatcher.EMPTY.matches("foo", true));
+        assertFalse(PermissionMatcher.EMPTY.matches("", false));
+    }
+
+    /**
+     * The implementation of {@link PermissionHolder#hasPermission(Permission)} before the matcher was introduced.
+     */
+    private static boolean regexHasPermission(@NotNull Set<Permission> permissions, @NotNull Permission permission) {
+        for (Permission permissionLoop : permissions) {
+            if (permissionLoop.equals(permission)) return true;
+
+            String permissionLoopName = permissionLoop.permission();
+            if (permissionLoopName.contains("*")) {
+                String regexSanitized = Pattern.quote(permissionLoopName).replace("*", "\\E(.*)\\Q");
+                if (permission.permission().matches(regexSanitized)) return true;
+            }
+        }
+        return false;
+    }
+}
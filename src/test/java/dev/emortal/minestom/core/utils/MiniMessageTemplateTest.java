@@ -0,0 +1,131 @@
+package dev.emortal.minestom.core.utils;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.ComponentLike;
+import net.kyori.adventure.text.TextComponent;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.Style;
+import net.kyori.adventure.text.format.TextDecoration;
+import net.kyori.adventure.text.minimessage.MiniMessage;
+import net.kyori.adventure.text.minimessage.tag.resolver.Placeholder;
+import net.kyori.adventure.text.minimessage.tag.resolver.TagResolver;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MiniMessageTemplateTest {
+    private static final MiniMessage MINI_MESSAGE = MiniMessage.miniMessage();
+
+    @Test
+    void plainTemplate() {
+        assertRendersLikeMiniMessage("Hello <name>!", new String[]{"name"}, "Bob");
+        assertRendersLikeMiniMessage("<name>", new String[]{"name"}, "Bob");
+    }
+
+    @Test
+    void valuesAreNotParsed() {
+        assertRendersLikeMiniMessage("Hello <name>!", new String[]{"name"}, "<red>Bob</red>");
+    }
+
+    @Test
+    void styledTemplate() {
+        assertRendersLikeMiniMessage("<red>Hello <bold><name></bold>, welcome to <server>!</red>",
+                new String[]{"name", "server"}, "Bob", "the lobby");
+        assertRendersLikeMiniMessage("<click:run_command:'/play'><hover:show_text:'Join'><green>Play <game></green></hover></click>",
+                new String[]{"game"}, "Parkour");
+    }
+
+    @Test
+    void styledComponentValues() {
+        assertRendersLikeMiniMessage("<red>Hello <bold><name></bold>, welcome to <server>!</red>",
+                new String[]{"name", "server"},
+                Component.text("Bob", NamedTextColor.BLUE),
+                Component.text("the lobby").decorate(TextDecoration.ITALIC));
+    }
+
+    @Test
+    void modifyingTags() {
+        assertRendersLikeMiniMessage("<gradient:red:blue>Hello <name>!</gradient>", new String[]{"name"}, "Bob");
+        assertRendersLikeMiniMessage("<rainbow><name> joined the game</rainbow>", new String[]{"name"}, "Bob");
+        assertRendersLikeMiniMessage("<transition:red:blue:0.5><name></transition> and <name>", new String[]{"name"}, "Bob");
+        assertRendersLikeMiniMessage("<gradient:red:blue><name></gradient>", new String[]{"name"},
+                Component.text("Bob", NamedTextColor.GREEN));
+    }
+
+    @Test
+    void repeatedPlaceholders() {
+        assertRendersLikeMiniMessage("<name> and <name>, then <other> and <name>", new String[]{"name", "other"}, "Bob", "Alice");
+        assertRendersLikeMiniMessage("<yellow><name></yellow> and <name>", new String[]{"name"},
+                Component.text("Bob", NamedTextColor.AQUA));
+    }
+
+    @Test
+    void noPlaceholders() {
+        String template = "<green>Nothing to <bold>replace</bold></green>";
+
+        assertEquals(styledText(MINI_MESSAGE.deserialize(template)), styledText(MiniMessageTemplate.compile(template).render()));
+    }
+
+    @Test
+    void wrongAmountOfValuesIsRejected() {
+        MiniMessageTemplate template = MiniMessageTemplate.compile("<a> <b>", "a", "b");
+
+        assertThrows(IllegalArgumentException.class, () -> template.render("only one"));
+        assertThrows(IllegalArgumentException.class, () -> template.render());
+    }
+
+    private static void assertRendersLikeMiniMessage(@NotNull String template, @NotNull String[] placeholders,
+                                                     @NotNull String... values) {
+        TagResolver.Builder resolvers = TagResolver.builder();
+        for (int i = 0; i < placeholders.length; i++) {
+            resolvers.resolver(Placeholder.unparsed(placeholders[i], values[i]));
+        }
+
+        Component expected = MINI_MESSAGE.deserialize(template, resolvers.build());
+        Component actual = MiniMessageTemplate.compile(template, placeholders).render(values);
+        assertEquals(styledText(expected), styledText(actual), template);
+    }
+
+    private static void assertRendersLikeMiniMessage(@NotNull String template, @NotNull String[] placeholders,
+                                                     @NotNull ComponentLike... values) {
+        TagResolver.Builder resolvers = TagResolver.builder();
+        for (int i = 0; i < placeholders.length; i++) {
+            resolvers.resolver(Placeholder.component(placeholders[i], values[i]));
+        }
+
+        Component expected = MINI_MESSAGE.deserialize(template, resolvers.build());
+        Component actual = MiniMessageTemplate.compile(template, placeholders).render(values);
+        assertEquals(styledText(expected), styledText(actual), template);
+    }
+
+    /**
+     * Flattens a component into its characters and their effective styles. Replacing text may split or merge components
+     * differently from parsing, without changing how the component looks, so trees aren't compared directly.
+     */
+    private static @NotNull List<StyledChar> styledText(@NotNull Component component) {
+        List<StyledChar> text = new ArrayList<>();
+        appendStyledText(component, Style.empty(), text);
+        return text;
+    }
+
+    private static void appendStyledText(@NotNull Component component, @NotNull Style parentStyle, @NotNull List<StyledChar> text) {
+        Style style = component.style().merge(parentStyle, Style.Merge.Strategy.IF_ABSENT_ON_TARGET);
+        if (component instanceof TextComponent textComponent) {
+            for (char c : textComponent.content().toCharArray()) {
+                text.add(new StyledChar(c, style));
+            }
+        }
+
+        for (Component child : component.children()) {
+            appendStyledText(child, style, text);
+        }
+    }
+
+    private record StyledChar(char character, @NotNull Style style) {
+    }
+}